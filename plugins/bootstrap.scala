@@ -14,14 +14,15 @@
  AUTHOR: lare96
 */
 
-import java.util.concurrent.{ThreadLocalRandom, TimeUnit}
+import java.util.concurrent.{Callable, ThreadLocalRandom, TimeUnit}
 import java.util.function._
 import java.util.{Optional, OptionalInt}
 
 import com.google.common.collect.BoundType
+import com.google.common.util.concurrent.{Futures, MoreExecutors}
 import io.luna.LunaContext
 import io.luna.game.action.Action
-import io.luna.game.event.{Event, EventArguments, EventListener, EventListenerPipelineSet}
+import io.luna.game.event.{AsyncEvent, Event, EventArguments, EventListener, EventListenerPipelineSet}
 import io.luna.game.model._
 import io.luna.game.model.`def`.ItemDefinition
 import io.luna.game.model.item.ItemContainer
@@ -234,6 +235,16 @@ def onargs[E <: Event](arg1: Any, argOther: Any*)
   pipelines.add(tag.runtimeClass, new EventListener(eventArgs, eventListener))
 }
 
+/*
+ Asynchronous event interception function, with no matching. The listener runs on a worker thread once the event has
+ been posted, so game-thread time is only spent on listeners that need to be ordered with game state. Only events
+ that carry no mutable game state (AsyncEvent) can be intercepted, such as LoginSnapshotEvent and LogoutSnapshotEvent
+ for logging or bookkeeping on login and logout. Changes to the world should be queued with 'sync'.
+*/
+def onasync[E <: Event with AsyncEvent](eventListener: E => Unit)
+  (implicit tag: ClassTag[E]): Unit =
+  pipelines.add(tag.runtimeClass, new EventListener(EventArguments.NO_ARGS, eventListener, service.getExecutorService))
+
 
 /* Asynchronous block functions. */
 def async(func: => Unit) = service.submit(new Runnable {
@@ -246,6 +257,26 @@ def async(func: => Unit) = service.submit(new Runnable {
   }
 })
 
+/* Queues a block to be ran on the game thread on the next tick. */
+def sync(func: => Unit) = service.sync(new Runnable {
+  override def run() = func
+})
+
+/* Computes a value on a worker thread, then passes it to 'then' on the game thread. */
+def asyncThen[T](func: => T)(then: T => Unit) = {
+  val future = service.submitAndSync(new Callable[T] {
+    override def call() = func
+  })
+  future.addListener(new Runnable {
+    override def run() = then(Futures.getDone(future))
+  }, MoreExecutors.directExecutor)
+}
+
+/* Runs a block on the game thread after the given amount of ticks, without scheduling a task. */
+def afterTicks(ticks: Int)(func: => Unit) = service.awaitTicks(ticks).addListener(new Runnable {
+  override def run() = func
+}, MoreExecutors.directExecutor)
+
 
 $startModule$("module_implicit_classes")
 /*
@@ -422,7 +453,10 @@ implicit class RichWorld(world: World) {
   def players = world.getPlayers
   def npcs = world.getNpcs
 
-  def messageToAll(str: String) = players.foreach(_.sendMessage(str))
+  def messageToAll(str: String) = world.broadcast(new GameChatboxMessageWriter(str))
+  def messageToAll(str: String, filter: Player => Boolean) = world.broadcast(new GameChatboxMessageWriter(str), filter)
+  def messageToRegion(str: String, pos: Position) =
+    world.broadcast(new GameChatboxMessageWriter(str), world.getRegions.getViewableEntities[Player](pos, TYPE_PLAYER))
 
   def getRegion(pos: Position) = world.getRegions.getRegion(pos)
 
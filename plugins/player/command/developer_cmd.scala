@@ -14,6 +14,7 @@ import io.luna.game.model.Position
 import io.luna.game.model.`def`.ItemDefinition
 import io.luna.game.model.item.Item
 import io.luna.game.model.mob._
+import io.luna.util.ExecutionProfile
 
 
 /* A command that allows for attributes to be dynamically retrieved or set. */
@@ -55,6 +56,52 @@ onargs[CommandEvent]("move", RIGHTS_DEV) { msg =>
   msg.plr.teleport(new Position(x, y, z))
 }
 
+/* A command that reports the outbound backlog of every client that isn't keeping up. */
+onargs[CommandEvent]("backlog", RIGHTS_DEV) { msg =>
+  val plr = msg.plr
+  val slow = world.players.filter(_.getSession.getUnwritableCycles > 0)
+
+  slow.foreach { it =>
+    val session = it.getSession
+    plr.sendMessage(s"${ it.name }: backlog=${ session.getOutboundBacklog }, " +
+      s"cycles=${ session.getUnwritableCycles }, shed=${ session.getShedMessages }")
+  }
+  plr.sendMessage(s"Found ${ slow.size } client(s) with an outbound backlog.")
+}
+
+/* A command that reports how many incoming packets have been dropped for exceeding their rate limits. */
+onargs[CommandEvent]("violations", RIGHTS_DEV) { msg =>
+  val repository = msg.plr.getSession.getMessageRepository
+  val violations = (0 until 257).map(it => (it, repository.getRateViolations(it))).filter(_._2 > 0)
+
+  violations.foreach { case (opcode, count) => msg.plr.sendMessage(s"opcode $opcode: $count dropped") }
+  msg.plr.sendMessage(s"Found ${ violations.size } rate limited opcode(s) with violations.")
+}
+
+/* A command that reports write-behind save and relog cache statistics. */
+onargs[CommandEvent]("saves", RIGHTS_DEV) { msg =>
+  val persistence = ctx.getPersistence
+  val stats = persistence.getCacheStats
+
+  msg.plr.sendMessage(s"pending=${ persistence.getPendingCount }, written=${ persistence.getWrittenCount }, " +
+    s"coalesced=${ persistence.getCoalescedCount }")
+  msg.plr.sendMessage(s"cache: hits=${ stats.hitCount }, misses=${ stats.missCount }, " +
+    s"evictions=${ stats.evictionCount }")
+}
+
+/* A command that gracefully shuts down the server, saving every player before disconnecting them. */
+onargs[CommandEvent]("shutdown", RIGHTS_DEV) { msg =>
+  service.stopAsync
+}
+
+/* A command that reports the plugin listeners and tasks that have taken the most time. */
+onargs[CommandEvent]("profile", RIGHTS_DEV) { msg =>
+  val count = if (msg.args.length == 1) msg.args(0).toInt else 10
+  val profiles = plugins.getProfiles ++ world.getTasks.getProfiles
+
+  ExecutionProfile.top(profiles, count).foreach(it => msg.plr.sendMessage(it.toString))
+}
+
 /* A command that opens the player's bank. */
 onargs[CommandEvent]("bank", RIGHTS_DEV) { msg => msg.plr.bank.open }
 
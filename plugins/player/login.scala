@@ -12,8 +12,9 @@
 import java.time.LocalDate
 import java.time.format.DateTimeFormatter
 
-import io.luna.game.event.impl.LoginEvent
+import io.luna.game.event.impl.{LoginEvent, ResumeEvent}
 import io.luna.game.model.item.Item
+import io.luna.game.model.mob.Player
 
 
 /* Formats dates into the pattern specified. */
@@ -71,9 +72,11 @@ on[LoginEvent] { msg =>
   }
 }
 
+/* A function that configures interface states. */
+private def sendRunConfig(plr: Player) = plr.sendConfig(173, if (plr.walking.isRunning) 1 else 0)
+
 /* Configure interface states. */
-on[LoginEvent] { msg =>
-  val plr = msg.plr
+on[LoginEvent] { msg => sendRunConfig(msg.plr) }
 
-  plr.sendConfig(173, if (plr.walking.isRunning) 1 else 0)
-}
\ No newline at end of file
+/* Resend the run config to a client that resumed a lingering session. */
+on[ResumeEvent] { msg => sendRunConfig(msg.plr) }
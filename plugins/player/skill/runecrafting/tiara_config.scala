@@ -9,7 +9,7 @@
  AUTHOR: lare96
 */
 
-import io.luna.game.event.impl.{EquipmentChangeEvent, LoginEvent}
+import io.luna.game.event.impl.{EquipmentChangeEvent, LoginEvent, ResumeEvent}
 import io.luna.game.model.item.Equipment.HEAD
 import io.luna.game.model.item.Item
 import io.luna.game.model.mob.Player
@@ -61,6 +61,9 @@ private def sendEquipmentConfig(plr: Player, oldItem: Option[Item], newItem: Opt
 /* Intercept event to send config key and value on login. */
 on[LoginEvent] { msg => sendLoginConfig(msg.plr) }
 
+/* Intercept event to resend config key and value when a lingering session is resumed. */
+on[ResumeEvent] { msg => sendLoginConfig(msg.plr) }
+
 /* Intercept event to send config key and value on equipment change. */
 on[EquipmentChangeEvent] { msg =>
   if (msg.index == HEAD) {
@@ -10,6 +10,7 @@
 
 import io.luna.game.event.impl.ServerLaunchEvent
 import io.luna.game.model.mob.Player
+import io.luna.net.msg.out.GameChatboxMessageWriter
 
 
 /* Announcement broadcast interval. */
@@ -30,8 +31,6 @@ private val FILTER = (plr: Player) => plr.rights <= RIGHTS_ADMIN // Only players
 /* Filter players and broadcast announcements at set intervals. */
 on[ServerLaunchEvent] { msg =>
   world.scheduleForever(TICK_INTERVAL) {
-    world.getPlayers.
-      filter(FILTER).
-      foreach { _.sendMessage(pick(MESSAGES)) }
+    world.broadcast(new GameChatboxMessageWriter(pick(MESSAGES)), FILTER)
   }
 }
\ No newline at end of file
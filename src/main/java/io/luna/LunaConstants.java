@@ -30,13 +30,25 @@ public final class LunaConstants {
             RSA_EXPONENT = new BigInteger(networkConstants.get("rsa_exponent").getAsString());
             RESOURCE_LEAK_DETECTION = Level.valueOf(networkConstants.get("resource_leak_detection").getAsString());
             CONNECTION_LIMIT = networkConstants.get("connection_threshold").getAsInt();
+            NATIVE_TRANSPORT = networkConstants.get("native_transport").getAsBoolean();
+            BOSS_THREADS = networkConstants.get("boss_threads").getAsInt();
+            WORKER_THREADS = networkConstants.get("worker_threads").getAsInt();
+            REUSE_PORT = networkConstants.get("reuse_port").getAsBoolean();
+            TCP_NODELAY = networkConstants.get("tcp_nodelay").getAsBoolean();
+            WRITE_BUFFER_LOW_WATER_MARK = networkConstants.get("write_buffer_low_water_mark").getAsInt();
+            WRITE_BUFFER_HIGH_WATER_MARK = networkConstants.get("write_buffer_high_water_mark").getAsInt();
 
             JsonObject gameConstants = tomlReader.getTable("game").to(JsonObject.class);
             STAGGERED_UPDATING = gameConstants.get("staggered_updating").getAsBoolean();
             STARTING_POSITION = getAsType(gameConstants.get("starting_position"), Position.class);
+            AUTOSAVE_INTERVAL = gameConstants.get("autosave_interval").getAsInt();
+            PLAYER_STORAGE = gameConstants.get("player_storage").getAsString();
+            SAVE_CACHE_SIZE = gameConstants.get("save_cache_size").getAsInt();
+            LINGER_TICKS = gameConstants.get("linger_ticks").getAsInt();
 
             JsonObject utilityConstants = tomlReader.getTable("utility").to(JsonObject.class);
             ASYNCHRONOUS_LOGGING = utilityConstants.get("asynchronous_logging").getAsBoolean();
+            SLOW_EXECUTION_THRESHOLD = utilityConstants.get("slow_execution_threshold").getAsInt();
         } catch (Exception e) {
             throw new ExceptionInInitializerError(e);
         }
@@ -72,6 +84,45 @@ public final class LunaConstants {
      */
     public static final int CONNECTION_LIMIT;
 
+    /**
+     * If the native {@code epoll} transport should be used when it's available. Falls back to the {@code NIO}
+     * transport on platforms other than Linux.
+     */
+    public static final boolean NATIVE_TRANSPORT;
+
+    /**
+     * The amount of threads that will accept connections. Values greater than {@code 1} are only useful when
+     * {@code REUSE_PORT} is enabled.
+     */
+    public static final int BOSS_THREADS;
+
+    /**
+     * The amount of threads that will handle I/O for accepted connections, {@code 0} for Netty's default of twice
+     * the amount of available processors.
+     */
+    public static final int WORKER_THREADS;
+
+    /**
+     * If {@code SO_REUSEPORT} should be used to bind one listening socket per boss thread, allowing the kernel to
+     * balance incoming connections between them. Requires the native {@code epoll} transport.
+     */
+    public static final boolean REUSE_PORT;
+
+    /**
+     * If Nagle's algorithm should be disabled for accepted connections.
+     */
+    public static final boolean TCP_NODELAY;
+
+    /**
+     * The amount of pending outbound bytes below which a channel becomes writable again.
+     */
+    public static final int WRITE_BUFFER_LOW_WATER_MARK;
+
+    /**
+     * The amount of pending outbound bytes above which a channel is no longer writable.
+     */
+    public static final int WRITE_BUFFER_HIGH_WATER_MARK;
+
     /**
      * If staggered updating should be enabled. This feature is disabled by default because it introduces a slight
      * performance regression. It should only be enabled by highly populated servers.
@@ -93,9 +144,39 @@ public final class LunaConstants {
      */
     public static final Position STARTING_POSITION;
 
+    /**
+     * The amount of ticks between autosaves of each player, {@code 0} to disable autosaving. Autosaves are spread
+     * across every tick in the interval.
+     */
+    public static final int AUTOSAVE_INTERVAL;
+
+    /**
+     * The player storage backend. Either {@code "file"} for one save file per player, or {@code "log"} for
+     * segmented append-only log files. Saves can be moved between backends with the {@code PlayerStorageTool}.
+     */
+    public static final String PLAYER_STORAGE;
+
+    /**
+     * The amount of recently saved players whose data is cached, so relogging doesn't have to touch the storage.
+     */
+    public static final int SAVE_CACHE_SIZE;
+
+    /**
+     * The amount of ticks a disconnected player stays in the world, during which a reconnecting client resumes
+     * their session instead of logging in from scratch. {@code 0} disables lingering. Players that click logout
+     * never linger.
+     */
+    public static final int LINGER_TICKS;
+
     /**
      * If asynchronous and garbage-free logging should be enabled. This feature is enabled by default because it
      * improves performance.
      */
     public static final boolean ASYNCHRONOUS_LOGGING;
+
+    /**
+     * The amount of milliseconds a single plugin listener or task can take before it's logged as slow, {@code 0}
+     * to disable slow call logging. Execution times are always recorded, and can be reported in-game.
+     */
+    public static final int SLOW_EXECUTION_THRESHOLD;
 }
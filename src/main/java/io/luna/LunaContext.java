@@ -2,6 +2,7 @@ package io.luna;
 
 import io.luna.game.GameService;
 import io.luna.game.model.World;
+import io.luna.game.model.mob.persistence.PersistenceService;
 import io.luna.game.plugin.PluginManager;
 
 /**
@@ -27,6 +28,11 @@ public final class LunaContext {
      */
     private final PluginManager plugins = new PluginManager(this);
 
+    /**
+     * The persistence service.
+     */
+    private final PersistenceService persistence = new PersistenceService();
+
     /**
      * A package-private constructor.
      */
@@ -53,4 +59,11 @@ public final class LunaContext {
     public PluginManager getPlugins() {
         return plugins;
     }
+
+    /**
+     * @return The persistence service.
+     */
+    public PersistenceService getPersistence() {
+        return persistence;
+    }
 }
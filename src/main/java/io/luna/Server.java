@@ -14,23 +14,32 @@ import io.luna.game.plugin.PluginBootstrap;
 import io.luna.game.plugin.PluginManager;
 import io.luna.net.LunaChannelInitializer;
 import io.luna.net.msg.MessageRepository;
+import io.luna.util.StartupGraph;
 import io.luna.util.parser.impl.EquipmentDefinitionParser;
 import io.luna.util.parser.impl.ItemDefinitionParser;
+import io.luna.util.parser.impl.MessageRateLimitParser;
 import io.luna.util.parser.impl.MessageRepositoryParser;
 import io.luna.util.parser.impl.NpcCombatDefinitionParser;
 import io.luna.util.parser.impl.NpcDefinitionParser;
 import io.luna.util.parser.impl.ObjectDefinitionParser;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.ResourceLeakDetector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import static org.apache.logging.log4j.util.Unbox.box;
 
@@ -47,7 +56,7 @@ public final class Server {
     private static final Logger LOGGER = LogManager.getLogger();
 
     /**
-     * A thread pool that will run startup tasks.
+     * A thread pool that will run the startup graph.
      */
     private final ListeningExecutorService launchPool;
 
@@ -77,14 +86,17 @@ public final class Server {
     public void init() throws Exception {
         LOGGER.info("Luna is being initialized...");
 
-        initLaunchTasks();
-        initPlugins();
-        initGame();
-
-        launchPool.shutdown();
-        launchPool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
-
-        initNetwork();
+        StartupGraph graph = new StartupGraph(launchPool);
+        try {
+            initLaunchTasks(graph);
+            graph.add("plugins", () -> new PluginBootstrap(context).loadNow());
+            graph.add("game", this::initGame, "plugins", "equipment_defs", "item_defs", "npc_combat_defs",
+                "npc_defs", "object_defs");
+            graph.add("network", this::initNetwork, "game", "message_repo", "message_limits");
+            graph.run();
+        } finally {
+            launchPool.shutdownNow();
+        }
         LOGGER.info("Luna is now online on port {}!", box(LunaConstants.PORT));
 
         PluginManager plugins = context.getPlugins();
@@ -97,41 +109,67 @@ public final class Server {
     private void initNetwork() throws Exception {
         ResourceLeakDetector.setLevel(LunaConstants.RESOURCE_LEAK_DETECTION);
 
-        ServerBootstrap bootstrap = new ServerBootstrap();
-        EventLoopGroup loopGroup = new NioEventLoopGroup();
+        boolean epoll = LunaConstants.NATIVE_TRANSPORT && Epoll.isAvailable();
+        boolean reusePort = epoll && LunaConstants.REUSE_PORT;
 
-        bootstrap.group(loopGroup);
-        bootstrap.channel(NioServerSocketChannel.class);
+        ServerBootstrap bootstrap = new ServerBootstrap();
+        EventLoopGroup bossGroup = epoll ? new EpollEventLoopGroup(LunaConstants.BOSS_THREADS) :
+            new NioEventLoopGroup(LunaConstants.BOSS_THREADS);
+        EventLoopGroup workerGroup = epoll ? new EpollEventLoopGroup(LunaConstants.WORKER_THREADS) :
+            new NioEventLoopGroup(LunaConstants.WORKER_THREADS);
+
+        bootstrap.group(bossGroup, workerGroup);
+        bootstrap.channel(epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class);
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, LunaConstants.TCP_NODELAY);
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+            LunaConstants.WRITE_BUFFER_LOW_WATER_MARK, LunaConstants.WRITE_BUFFER_HIGH_WATER_MARK));
         bootstrap.childHandler(new LunaChannelInitializer(context, repository));
-        bootstrap.bind(LunaConstants.PORT).syncUninterruptibly();
+
+        if (reusePort) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            for (int count = 0; count < LunaConstants.BOSS_THREADS; count++) {
+                bootstrap.bind(LunaConstants.PORT).syncUninterruptibly();
+            }
+        } else {
+            bootstrap.bind(LunaConstants.PORT).syncUninterruptibly();
+        }
+        LOGGER.info("Using the {} transport with {} acceptor socket(s).", epoll ? "epoll" : "NIO",
+            box(reusePort ? LunaConstants.BOSS_THREADS : 1));
     }
 
     /**
-     * Initializes the game service.
+     * Initializes the persistence and game services.
      */
     private void initGame() throws Exception {
+        context.getPersistence().startAsync().awaitRunning();
+
         GameService service = context.getService();
         service.startAsync().awaitRunning();
     }
 
     /**
-     * Initializes the plugin bootstrap.
+     * Adds misc. startup tasks to {@code graph}.
      */
-    private void initPlugins() throws Exception {
-        PluginBootstrap bootstrap = new PluginBootstrap(context);
-        bootstrap.load(launchPool);
+    private void initLaunchTasks(StartupGraph graph) {
+        graph.add("message_repo", new MessageRepositoryParser(repository)::run);
+        graph.add("message_limits", new MessageRateLimitParser(repository)::run);
+
+        graph.add("equipment_defs", new EquipmentDefinitionParser()::run);
+        graph.add("item_defs", new ItemDefinitionParser()::run);
+        graph.add("npc_combat_defs", new NpcCombatDefinitionParser()::run);
+        graph.add("npc_defs", new NpcDefinitionParser()::run);
+        graph.add("object_defs", this::initObjectDefs);
     }
 
     /**
-     * Initializes misc. startup tasks.
+     * Loads object definitions. They're optional until the object definition file ships with the server, so a
+     * missing file only logs a warning.
      */
-    private void initLaunchTasks() throws Exception {
-        launchPool.execute(new MessageRepositoryParser(repository));
-
-        launchPool.execute(new EquipmentDefinitionParser());
-        launchPool.execute(new ItemDefinitionParser());
-        launchPool.execute(new NpcCombatDefinitionParser());
-        launchPool.execute(new NpcDefinitionParser());
-        launchPool.execute(new ObjectDefinitionParser());
+    private void initObjectDefs() {
+        if (Files.notExists(Paths.get(ObjectDefinitionParser.PATH))) {
+            LOGGER.warn("{} not found, object definitions will not be loaded.", ObjectDefinitionParser.PATH);
+            return;
+        }
+        new ObjectDefinitionParser().run();
     }
 }
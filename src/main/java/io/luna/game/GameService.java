@@ -1,21 +1,29 @@
 package io.luna.game;
 
 import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.luna.LunaContext;
 import io.luna.game.model.World;
+import io.luna.game.model.mob.Player;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * A service that handles game logic processing.
  *
@@ -39,11 +47,26 @@ public final class GameService extends AbstractScheduledService {
      */
     private final Queue<Runnable> syncTasks = new ConcurrentLinkedQueue<>();
 
+    /**
+     * An executor that runs tasks on the game thread, at the start of the next tick.
+     */
+    private final Executor syncExecutor = this::sync;
+
+    /**
+     * The futures completed at the start of each tick, by tick. Shared by everything waiting on the same tick.
+     */
+    private final Map<Long, SettableFuture<Void>> tickFutures = new HashMap<>();
+
     /**
      * The context instance.
      */
     private final LunaContext context;
 
+    /**
+     * The amount of ticks that have started.
+     */
+    private long tick;
+
     /**
      * Creates a new {@link GameService}.
      *
@@ -61,6 +84,12 @@ public final class GameService extends AbstractScheduledService {
     @Override
     protected void runOneIteration() throws Exception {
         try {
+            tick++;
+            SettableFuture<Void> tickFuture = tickFutures.remove(tick);
+            if (tickFuture != null) {
+                tickFuture.set(null);
+            }
+
             for (; ; ) {
                 Runnable t = syncTasks.poll();
                 if (t == null) {
@@ -78,6 +107,8 @@ public final class GameService extends AbstractScheduledService {
             world.dequeueLogins();
             world.runGameLoop();
             world.dequeueLogouts();
+
+            context.getPersistence().autosave(world.getPlayers());
         } catch (Exception e) {
             LOGGER.catching(e);
         }
@@ -94,11 +125,24 @@ public final class GameService extends AbstractScheduledService {
             World world = context.getWorld();
 
             LOGGER.fatal("The asynchronous game service has been shutdown, exiting...");
+            world.beginShutdown();
             syncTasks.forEach(Runnable::run);
             syncTasks.clear();
+
+            Player[] players = world.getPlayers().toArray(); /* Logging out snapshots every player. */
             world.getPlayers().clear();
+            context.getPersistence().stopAsync().awaitTerminated();
+
+            for (Player player : players) { /* Only disconnect once every save is durable. */
+                if (player != null) {
+                    player.getSession().getChannel().close();
+                }
+            }
+
             executorService.shutdown();
-            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warn("Worker tasks did not finish within 30 seconds, exiting anyway.");
+            }
         } catch (Exception e) {
             LOGGER.catching(e);
         }
@@ -112,6 +156,30 @@ public final class GameService extends AbstractScheduledService {
         syncTasks.add(t);
     }
 
+    /**
+     * Returns a future that completes at the start of the tick {@code ticks} ticks from now, before any queued
+     * tasks are ran. Waits for the same tick share a future, so waiting never allocates a {@code Task}. Each
+     * caller gets its own view of the shared future, so cancelling it never cancels the other waits. Must be
+     * called on the game thread.
+     */
+    public ListenableFuture<Void> awaitTicks(int ticks) {
+        checkArgument(ticks > 0, "ticks must be above 0");
+        return Futures.nonCancellationPropagating(tickFutures.computeIfAbsent(tick + ticks,
+            key -> SettableFuture.create()));
+    }
+
+    /**
+     * Runs a result-bearing asynchronous task, returning a future that completes on the game thread at the start
+     * of the tick after the task finishes. Listeners added to the future with a direct executor will therefore
+     * always run on the game thread, batched with the other queued tasks.
+     */
+    public <T> ListenableFuture<T> submitAndSync(Callable<T> t) {
+        SettableFuture<T> result = SettableFuture.create();
+        ListenableFuture<T> task = executorService.submit(t);
+        task.addListener(() -> result.setFuture(task), syncExecutor);
+        return result;
+    }
+
     /**
      * Runs an asynchronous task.
      */
@@ -133,6 +201,20 @@ public final class GameService extends AbstractScheduledService {
         return executorService.submit(t);
     }
 
+    /**
+     * @return A cached thread pool for low-priority tasks.
+     */
+    public ListeningExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * @return An executor that runs tasks on the game thread, at the start of the next tick.
+     */
+    public Executor getSyncExecutor() {
+        return syncExecutor;
+    }
+
     /**
      * @return The context instance.
      */
@@ -2,8 +2,8 @@ package io.luna.game.action;
 
 import io.luna.game.model.item.Inventory;
 import io.luna.game.model.item.Item;
+import io.luna.game.model.item.ItemContainer.TransactionResult;
 import io.luna.game.model.mob.Player;
-import io.luna.net.msg.out.GameChatboxMessageWriter;
 import io.luna.util.Rational;
 import io.netty.util.internal.ThreadLocalRandom;
 
@@ -47,21 +47,11 @@ public abstract class HarvestingAction extends PlayerAction {
             currentRemove = remove();
             currentAdd = add();
 
-            if (!inventory.containsAll(currentRemove)) {
+            TransactionResult result = inventory.transaction().remove(currentRemove).add(currentAdd).commit();
+            if (result != TransactionResult.SUCCESS) { /* The inventory explains a lack of space. */
                 interrupt();
                 return;
             }
-
-            int newSlots = inventory.computeSize(currentAdd);
-            int oldSlots = inventory.computeSize(currentRemove);
-            if ((newSlots - oldSlots) > inventory.computeRemainingSize()) {
-                mob.queue(new GameChatboxMessageWriter("You do not have enough space in your inventory."));
-                interrupt();
-                return;
-            }
-
-            inventory.removeAll(currentRemove);
-            inventory.addAll(currentAdd);
             onHarvest();
         }
     }
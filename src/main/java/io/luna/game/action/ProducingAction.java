@@ -2,8 +2,8 @@ package io.luna.game.action;
 
 import io.luna.game.model.item.Inventory;
 import io.luna.game.model.item.Item;
+import io.luna.game.model.item.ItemContainer.TransactionResult;
 import io.luna.game.model.mob.Player;
-import io.luna.net.msg.out.GameChatboxMessageWriter;
 
 /**
  * A {@link PlayerAction} implementation that will remove items from and add items to the inventory.
@@ -40,21 +40,11 @@ public abstract class ProducingAction extends PlayerAction {
         currentAdd = add();
 
         Inventory inventory = mob.getInventory();
-        if (!inventory.containsAll(currentRemove)) {
+        TransactionResult result = inventory.transaction().remove(currentRemove).add(currentAdd).commit();
+        if (result != TransactionResult.SUCCESS) { /* The inventory explains a lack of space. */
             interrupt();
             return;
         }
-
-        int newSlots = inventory.computeSize(currentAdd);
-        int oldSlots = inventory.computeSize(currentRemove);
-        if ((newSlots - oldSlots) > inventory.computeRemainingSize()) {
-            mob.queue(new GameChatboxMessageWriter("You do not have enough space in your inventory."));
-            interrupt();
-            return;
-        }
-
-        inventory.removeAll(currentRemove);
-        inventory.addAll(currentAdd);
         onProduce();
     }
 
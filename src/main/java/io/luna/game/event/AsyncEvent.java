@@ -0,0 +1,11 @@
+package io.luna.game.event;
+
+/**
+ * A marker for events that carry no references to mutable game state, such as mobs or item containers. Only these
+ * events can be intercepted by asynchronous listeners, because they're safe to read from any thread. Events that
+ * reference mutable game state can be paired with a snapshot event, like {@code LoginSnapshotEvent}.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public interface AsyncEvent {
+}
@@ -26,6 +26,23 @@ public class Event {
         return true;
     }
 
+    /**
+     * Returns the key that listeners are indexed by, or {@code null} to apply every listener. Returns {@code null}
+     * by default.
+     */
+    public Object key() {
+        return null;
+    }
+
+    /**
+     * Returns the keys that a listener with {@code args} is indexed under, or {@code null} to apply it to every
+     * event. This event must only {@link #matches(EventArguments)} arguments indexed under its {@link #key()}.
+     * Returns {@code null} by default.
+     */
+    public Iterable<?> keys(EventArguments args) {
+        return null;
+    }
+
     /**
      * Terminates the passing of this event through a pipeline. Returns {@code false} if the event was
      * not terminated.
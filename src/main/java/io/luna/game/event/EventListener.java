@@ -1,9 +1,13 @@
 package io.luna.game.event;
 
+import com.google.common.collect.Iterables;
+import io.luna.game.GameService;
 import io.luna.game.plugin.PluginFailureException;
+import io.luna.util.ExecutionProfile;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -29,6 +33,21 @@ public final class EventListener<E extends Event> {
      */
     private final Consumer<E> listener;
 
+    /**
+     * The executor that applies this listener, or {@code null} to apply it on the calling thread.
+     */
+    private final Executor executor;
+
+    /**
+     * The plugin file that registered this listener, or {@code null} if it wasn't registered by a plugin.
+     */
+    private String plugin;
+
+    /**
+     * The execution profile, created when this listener is first applied.
+     */
+    private volatile ExecutionProfile profile;
+
     /**
      * Creates a new {@link EventListener}.
      *
@@ -36,8 +55,23 @@ public final class EventListener<E extends Event> {
      * @param listener The listener function.
      */
     public EventListener(EventArguments args, Consumer<E> listener) {
+        this(args, listener, null);
+    }
+
+    /**
+     * Creates a new {@link EventListener} that is applied by {@code executor} instead of the game thread. The
+     * listener will receive events after they've finished traversing their pipeline, so it can't terminate them.
+     * It can only intercept {@link AsyncEvent}s, and changes to the world must be queued with
+     * {@link GameService#sync(Runnable)}.
+     *
+     * @param args The arguments.
+     * @param listener The listener function.
+     * @param executor The executor that applies this listener.
+     */
+    public EventListener(EventArguments args, Consumer<E> listener, Executor executor) {
         this.listener = listener;
         this.args = args;
+        this.executor = executor;
     }
 
     /**
@@ -46,9 +80,9 @@ public final class EventListener<E extends Event> {
     public void apply(E msg) throws PluginFailureException {
         try {
             if (args == EventArguments.NO_ARGS) {
-                listener.accept(msg);
+                dispatch(msg);
             } else if (msg.matches(args)) {
-                listener.accept(msg);
+                dispatch(msg);
                 msg.terminate();
             }
         } catch (PluginFailureException failure) { // fail, recoverable
@@ -58,6 +92,51 @@ public final class EventListener<E extends Event> {
         }
     }
 
+    /**
+     * Passes {@code msg} to the wrapped function, either directly or through the executor.
+     */
+    private void dispatch(E msg) {
+        if (executor == null) {
+            accept(msg);
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                accept(msg);
+            } catch (Exception e) {
+                LOGGER.catching(e);
+            }
+        });
+    }
+
+    /**
+     * Passes {@code msg} to the wrapped function, recording how long it takes.
+     */
+    private void accept(E msg) {
+        ExecutionProfile profile = this.profile;
+        if (profile == null) {
+            String name = plugin == null ? "<unknown>" : plugin;
+            String arguments = args == EventArguments.NO_ARGS ? "" : Iterables.toString(args);
+            String lane = executor == null ? "" : " (async)";
+            profile = new ExecutionProfile(name + " " + msg.getClass().getSimpleName() + arguments + lane);
+            this.profile = profile;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            listener.accept(msg);
+        } finally {
+            profile.record(startTime);
+        }
+    }
+
+    /**
+     * Sets the plugin file that registered this listener.
+     */
+    void setPlugin(String plugin) {
+        this.plugin = plugin;
+    }
+
     /**
      * @return The listener function.
      */
@@ -65,10 +144,31 @@ public final class EventListener<E extends Event> {
         return listener;
     }
 
+    /**
+     * @return {@code true} if this listener is applied off the game thread.
+     */
+    public boolean isAsync() {
+        return executor != null;
+    }
+
     /**
      * @return The arguments.
      */
     public EventArguments getArgs() {
         return args;
     }
+
+    /**
+     * @return The plugin file that registered this listener, or {@code null} if it wasn't registered by a plugin.
+     */
+    public String getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * @return The execution profile, or {@code null} if this listener hasn't been applied yet.
+     */
+    public ExecutionProfile getProfile() {
+        return profile;
+    }
 }
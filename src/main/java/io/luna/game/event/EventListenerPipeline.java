@@ -2,19 +2,31 @@ package io.luna.game.event;
 
 import com.google.common.collect.Iterators;
 import com.google.common.collect.UnmodifiableIterator;
+import com.google.common.primitives.Ints;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * A pipeline-like model of listeners contained within a pipeline set. It allows for the traversal of events
  * through it, in order to be intercepted.
+ * <p>
+ * Events with a {@link Event#key()} are dispatched through an index, so only the listeners indexed under that
+ * key and the listeners without arguments are applied, in the order they were added.
  *
  * @param <E> The type of events that will traverse this pipeline.
  * @author lare96 <http://github.org/lare96>
  */
 public final class EventListenerPipeline<E extends Event> implements Iterable<EventListener<E>> {
 
+    /**
+     * An empty array of listener positions.
+     */
+    private static final int[] NO_POSITIONS = {};
+
     /**
      * The type of message traversing this pipeline.
      */
@@ -25,6 +37,16 @@ public final class EventListenerPipeline<E extends Event> implements Iterable<Ev
      */
     private final List<EventListener<E>> listeners = new ArrayList<>();
 
+    /**
+     * The positions of listeners that are applied to every event, or {@code null} if the index needs to be built.
+     */
+    private int[] unkeyed;
+
+    /**
+     * The positions of listeners indexed under each key.
+     */
+    private Map<Object, int[]> keyed;
+
     /**
      * A flag determining if a traversal was terminated.
      */
@@ -52,17 +74,61 @@ public final class EventListenerPipeline<E extends Event> implements Iterable<Ev
             terminated = false;
             msg.pipeline(this);
 
-            for (EventListener<E> listener : listeners) {
-                if (terminated) {
-                    break;
+            Object key = msg.key();
+            if (key == null) {
+                for (EventListener<E> listener : listeners) {
+                    if (terminated) {
+                        break;
+                    }
+                    listener.apply(msg);
                 }
-                listener.apply(msg);
+                return;
+            }
+
+            if (unkeyed == null) {
+                index(msg);
+            }
+            int[] all = unkeyed;
+            int[] matched = keyed.getOrDefault(key, NO_POSITIONS);
+            int allIndex = 0;
+            int matchedIndex = 0;
+            while (!terminated && (allIndex < all.length || matchedIndex < matched.length)) {
+                boolean nextAll = matchedIndex == matched.length ||
+                    allIndex < all.length && all[allIndex] < matched[matchedIndex];
+                int position = nextAll ? all[allIndex++] : matched[matchedIndex++];
+                listeners.get(position).apply(msg);
             }
         } finally {
             msg.pipeline(null);
         }
     }
 
+    /**
+     * Builds the index of listener positions, using {@code msg} to determine the keys of each listener.
+     */
+    private void index(E msg) {
+        List<Integer> all = new ArrayList<>();
+        Map<Object, List<Integer>> byKey = new HashMap<>();
+        for (int position = 0; position < listeners.size(); position++) {
+            EventArguments args = listeners.get(position).getArgs();
+            Iterable<?> keys = args == EventArguments.NO_ARGS ? null : msg.keys(args);
+            if (keys == null) {
+                all.add(position);
+                continue;
+            }
+            for (Object key : keys) {
+                List<Integer> positions = byKey.computeIfAbsent(key, k -> new ArrayList<>());
+                if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+                    positions.add(position);
+                }
+            }
+        }
+
+        keyed = new HashMap<>();
+        byKey.forEach((key, positions) -> keyed.put(key, Ints.toArray(positions)));
+        unkeyed = Ints.toArray(all);
+    }
+
     /**
      * Terminates an active traversal of this pipeline.
      */
@@ -80,6 +146,15 @@ public final class EventListenerPipeline<E extends Event> implements Iterable<Ev
     @SuppressWarnings("unchecked")
     public void add(EventListener<?> listener) throws ClassCastException {
         listeners.add((EventListener<E>) listener);
+        unkeyed = null;
+    }
+
+    /**
+     * Removes every listener matching {@code filter}.
+     */
+    public void removeIf(Predicate<EventListener<?>> filter) {
+        listeners.removeIf(filter);
+        unkeyed = null;
     }
 
     /**
@@ -1,11 +1,18 @@
 package io.luna.game.event;
 
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.UnmodifiableIterator;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * A set of pipelines mapped to their respective event traversal types.
@@ -20,13 +27,65 @@ public final class EventListenerPipelineSet implements Iterable<EventListenerPip
     private final Map<Class<?>, EventListenerPipeline<?>> pipelines = new HashMap<>();
 
     /**
-     * Adds a new event listener to a pipeline within this set.
+     * The plugin file that listeners are currently being added for.
+     */
+    private String plugin;
+
+    /**
+     * Adds a new event listener to a pipeline within this set, tagging it with the current plugin file.
+     * Asynchronous listeners can only be added for {@link AsyncEvent}s.
      */
     public void add(Class<?> messageType, EventListener<?> listener) {
+        checkArgument(!listener.isAsync() || AsyncEvent.class.isAssignableFrom(messageType),
+            "%s references mutable game state and can't be intercepted asynchronously", messageType.getName());
+
         EventListenerPipeline<?> pipeline = pipelines.computeIfAbsent(messageType, EventListenerPipeline::new);
+        listener.setPlugin(plugin);
         pipeline.add(listener);
     }
 
+    /**
+     * Removes every listener matching {@code filter}, and any pipelines left empty.
+     */
+    public void removeIf(Predicate<EventListener<?>> filter) {
+        Iterator<EventListenerPipeline<?>> iterator = pipelines.values().iterator();
+        while (iterator.hasNext()) {
+            EventListenerPipeline<?> pipeline = iterator.next();
+            pipeline.removeIf(filter);
+            if (pipeline.size() == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of this set with new pipelines, so that it can be modified without affecting this one. The
+     * listeners of each pipeline are ordered by the plugin file that registered them, which is also the order
+     * plugins are loaded in.
+     */
+    public EventListenerPipelineSet copy() {
+        Comparator<EventListener<?>> byPlugin = Comparator.comparing(EventListener::getPlugin,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        EventListenerPipelineSet copy = new EventListenerPipelineSet();
+        for (EventListenerPipeline<?> pipeline : pipelines.values()) {
+            List<EventListener<?>> listeners = Lists.newArrayList(pipeline);
+            listeners.sort(byPlugin);
+
+            EventListenerPipeline<?> pipelineCopy = new EventListenerPipeline<>(pipeline.getMessageType());
+            listeners.forEach(pipelineCopy::add);
+            copy.pipelines.put(pipeline.getMessageType(), pipelineCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Sets the plugin file that listeners are currently being added for.
+     */
+    public void setPlugin(String plugin) {
+        this.plugin = plugin;
+    }
+
     /**
      * Retrieves a pipeline from this set. Will never return {@code null}.
      */
@@ -31,6 +31,16 @@ public final class ButtonClickEvent extends PlayerEvent {
         return args.contains(id);
     }
 
+    @Override
+    public Object key() {
+        return id;
+    }
+
+    @Override
+    public Iterable<?> keys(EventArguments args) {
+        return args;
+    }
+
     /**
      * @return The clicked button.
      */
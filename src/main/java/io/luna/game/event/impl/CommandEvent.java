@@ -1,5 +1,6 @@
 package io.luna.game.event.impl;
 
+import com.google.common.collect.ImmutableList;
 import io.luna.game.event.EventArguments;
 import io.luna.game.model.mob.Player;
 import io.luna.game.model.mob.PlayerRights;
@@ -50,6 +51,16 @@ public final class CommandEvent extends PlayerEvent {
         return args.equals(0, name) && rights.equalOrGreater((PlayerRights) args.get(1));
     }
 
+    @Override
+    public Object key() {
+        return name;
+    }
+
+    @Override
+    public Iterable<?> keys(EventArguments args) {
+        return ImmutableList.of(args.get(0));
+    }
+
     /**
      * Returns the command argument at {@code index}.
      */
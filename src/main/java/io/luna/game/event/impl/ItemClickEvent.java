@@ -122,6 +122,16 @@ public class ItemClickEvent extends PlayerEvent {
         return args.contains(id);
     }
 
+    @Override
+    public final Object key() {
+        return id;
+    }
+
+    @Override
+    public final Iterable<?> keys(EventArguments args) {
+        return args;
+    }
+
     /**
      * @return The identifier of the item clicked.
      */
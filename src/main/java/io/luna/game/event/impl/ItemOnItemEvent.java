@@ -68,6 +68,16 @@ public final class ItemOnItemEvent extends PlayerEvent {
             .equals(1, usedId);
     }
 
+    @Override
+    public Object key() {
+        return usedId;
+    }
+
+    @Override
+    public Iterable<?> keys(EventArguments args) {
+        return args;
+    }
+
     /**
      * @return The used item identifier.
      */
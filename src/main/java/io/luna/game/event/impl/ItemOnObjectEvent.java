@@ -1,5 +1,6 @@
 package io.luna.game.event.impl;
 
+import com.google.common.collect.ImmutableList;
 import io.luna.game.event.EventArguments;
 import io.luna.game.model.mob.Player;
 
@@ -67,6 +68,16 @@ public final class ItemOnObjectEvent extends PlayerEvent {
         return args.equals(0, itemId) && args.equals(1, objectId);
     }
 
+    @Override
+    public Object key() {
+        return itemId;
+    }
+
+    @Override
+    public Iterable<?> keys(EventArguments args) {
+        return ImmutableList.of(args.get(0));
+    }
+
     /**
      * @return The item identifier.
      */
@@ -0,0 +1,21 @@
+package io.luna.game.event.impl;
+
+import io.luna.game.model.mob.Player;
+
+/**
+ * An event sent after a {@link LoginEvent}, holding a snapshot of the player that logged in. Unlike the
+ * {@link LoginEvent}, it can be intercepted asynchronously.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class LoginSnapshotEvent extends PlayerSnapshotEvent {
+
+    /**
+     * Creates a new {@link LoginSnapshotEvent}.
+     *
+     * @param player The player.
+     */
+    public LoginSnapshotEvent(Player player) {
+        super(player);
+    }
+}
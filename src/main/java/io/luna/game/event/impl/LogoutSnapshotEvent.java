@@ -0,0 +1,21 @@
+package io.luna.game.event.impl;
+
+import io.luna.game.model.mob.Player;
+
+/**
+ * An event sent after a {@link LogoutEvent}, holding a snapshot of the player that logged out. Unlike the
+ * {@link LogoutEvent}, it can be intercepted asynchronously.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class LogoutSnapshotEvent extends PlayerSnapshotEvent {
+
+    /**
+     * Creates a new {@link LogoutSnapshotEvent}.
+     *
+     * @param player The player.
+     */
+    public LogoutSnapshotEvent(Player player) {
+        super(player);
+    }
+}
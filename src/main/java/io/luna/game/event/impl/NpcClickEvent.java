@@ -109,6 +109,16 @@ public class NpcClickEvent extends PlayerEvent {
         return args.contains(npc.getId());
     }
 
+    @Override
+    public final Object key() {
+        return npc.getId();
+    }
+
+    @Override
+    public final Iterable<?> keys(EventArguments args) {
+        return args;
+    }
+
     /**
      * @return The non-player character.
      */
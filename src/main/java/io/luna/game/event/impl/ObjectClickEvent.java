@@ -92,6 +92,16 @@ public class ObjectClickEvent extends PlayerEvent {
         return args.contains(id);
     }
 
+    @Override
+    public final Object key() {
+        return id;
+    }
+
+    @Override
+    public final Iterable<?> keys(EventArguments args) {
+        return args;
+    }
+
     /**
      * @return The object identifier.
      */
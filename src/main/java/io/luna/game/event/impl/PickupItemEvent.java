@@ -44,6 +44,16 @@ public final class PickupItemEvent extends PlayerEvent {
         return args.contains(id);
     }
 
+    @Override
+    public Object key() {
+        return id;
+    }
+
+    @Override
+    public Iterable<?> keys(EventArguments args) {
+        return args;
+    }
+
     /**
      * @return The item's x coordinate.
      */
@@ -0,0 +1,62 @@
+package io.luna.game.event.impl;
+
+import io.luna.game.event.AsyncEvent;
+import io.luna.game.event.Event;
+import io.luna.game.model.mob.Player;
+import io.luna.game.model.mob.PlayerRights;
+
+/**
+ * An immutable snapshot of a player, taken on the game thread so that it can be intercepted asynchronously. Not
+ * intended for interception.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+class PlayerSnapshotEvent extends Event implements AsyncEvent {
+
+    /**
+     * The username.
+     */
+    private final String username;
+
+    /**
+     * The username hash.
+     */
+    private final long usernameHash;
+
+    /**
+     * The rights.
+     */
+    private final PlayerRights rights;
+
+    /**
+     * Creates a new {@link PlayerSnapshotEvent}.
+     *
+     * @param player The player to take a snapshot of.
+     */
+    public PlayerSnapshotEvent(Player player) {
+        username = player.getUsername();
+        usernameHash = player.getUsernameHash();
+        rights = player.getRights();
+    }
+
+    /**
+     * @return The username.
+     */
+    public String username() {
+        return username;
+    }
+
+    /**
+     * @return The username hash.
+     */
+    public long usernameHash() {
+        return usernameHash;
+    }
+
+    /**
+     * @return The rights.
+     */
+    public PlayerRights rights() {
+        return rights;
+    }
+}
@@ -0,0 +1,21 @@
+package io.luna.game.event.impl;
+
+import io.luna.game.model.mob.Player;
+
+/**
+ * An event sent when a lingering player's session is resumed by a reconnecting client. Plugins that send client
+ * state on {@link LoginEvent} should resend it here.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class ResumeEvent extends PlayerEvent {
+
+    /**
+     * Creates a new {@link ResumeEvent}.
+     *
+     * @param player The player.
+     */
+    public ResumeEvent(Player player) {
+        super(player);
+    }
+}
@@ -1,5 +1,6 @@
 package io.luna.game.event.impl;
 
+import io.luna.game.event.AsyncEvent;
 import io.luna.game.event.Event;
 
 /**
@@ -7,7 +8,7 @@ import io.luna.game.event.Event;
  *
  * @author lare96 <http://github.org/lare96>
  */
-public final class ServerLaunchEvent extends Event {
+public final class ServerLaunchEvent extends Event implements AsyncEvent {
 
     /**
      * Singleton instance.
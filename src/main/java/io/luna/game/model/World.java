@@ -1,5 +1,7 @@
 package io.luna.game.model;
 
+import com.google.common.collect.Iterables;
+import io.luna.LunaConstants;
 import io.luna.LunaContext;
 import io.luna.game.model.mob.MobList;
 import io.luna.game.model.mob.Npc;
@@ -7,10 +9,16 @@ import io.luna.game.model.mob.Player;
 import io.luna.game.model.region.RegionManager;
 import io.luna.game.task.Task;
 import io.luna.game.task.TaskManager;
+import io.luna.net.codec.ByteMessage;
+import io.luna.net.msg.MessageWriter;
+import io.luna.net.session.GameSession;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
 
 /**
  * A model that manages entities.
@@ -44,6 +52,16 @@ public final class World {
      */
     private final Queue<Player> logouts = new ConcurrentLinkedQueue<>();
 
+    /**
+     * A queue of sessions awaiting to resume a lingering player.
+     */
+    private final Queue<GameSession> resumes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The disconnected players that are lingering in the world, by username hash.
+     */
+    private final Map<Long, Player> lingering = new ConcurrentHashMap<>();
+
     /**
      * The region manager.
      */
@@ -59,6 +77,11 @@ public final class World {
      */
     private final WorldSynchronizer synchronizer = new WorldSynchronizer(this);
 
+    /**
+     * If the server is shutting down and no longer accepting logins.
+     */
+    private volatile boolean shuttingDown;
+
     /**
      * Creates a new {@link World}.
      *
@@ -75,6 +98,13 @@ public final class World {
         tasks.schedule(task);
     }
 
+    /**
+     * Stops accepting logins and resumptions, so that no player is added after the final saves are taken.
+     */
+    public void beginShutdown() {
+        shuttingDown = true;
+    }
+
     /**
      * Queues {@code player} for login on the next tick.
      */
@@ -85,9 +115,60 @@ public final class World {
     }
 
     /**
-     * Adds players awaiting login to the world.
+     * Queues {@code session} to resume its lingering player on the next tick.
+     */
+    public void queueResume(GameSession session) {
+        resumes.add(session);
+    }
+
+    /**
+     * Keeps the disconnected {@code player} in the world for {@code LunaConstants.LINGER_TICKS} ticks, so that a
+     * reconnecting client can resume their session. The player is queued for logout instead if lingering is
+     * disabled, or if they requested to logout.
+     */
+    public void linger(Player player) {
+        if (LunaConstants.LINGER_TICKS <= 0 || player.isLogoutRequested() ||
+            player.getState() != EntityState.ACTIVE) {
+            queueLogout(player);
+        } else {
+            lingering.putIfAbsent(player.getUsernameHash(), player);
+        }
+    }
+
+    /**
+     * Retrieves a lingering player by their username hash.
+     */
+    public Optional<Player> getLingering(long username) {
+        return Optional.ofNullable(lingering.get(username));
+    }
+
+    /**
+     * Resumes lingering players and adds players awaiting login to the world.
      */
     public void dequeueLogins() {
+        for (; ; ) {
+            GameSession session = resumes.poll();
+            if (session == null) {
+                break;
+            }
+
+            Player player = session.getPlayer();
+            if (lingering.remove(player.getUsernameHash(), player) && player.getState() == EntityState.ACTIVE) {
+                if (player.isBanActive()) {
+                    session.getChannel().close(); /* Banned after the resume was accepted. */
+                    linger(player);
+                    continue;
+                }
+                player.clearLiftedPunishments();
+                player.resume(session);
+                if (!session.getChannel().isActive()) {
+                    linger(player); /* Disconnected again before being resumed. */
+                }
+            } else {
+                session.getChannel().close(); /* Stopped lingering before being resumed. */
+            }
+        }
+
         for (int amount = 0; amount < EntityConstants.LOGIN_THRESHOLD; amount++) {
             Player player = logins.poll();
             if (player == null) {
@@ -107,9 +188,18 @@ public final class World {
     }
 
     /**
-     * Removes players awaiting logout from the world.
+     * Logs out players that have lingered for too long, and removes players awaiting logout from the world.
      */
     public void dequeueLogouts() {
+        for (Player player : lingering.values()) {
+            if (player.getState() != EntityState.ACTIVE) {
+                lingering.remove(player.getUsernameHash(), player);
+            } else if (player.incrementLingerCycles() >= LunaConstants.LINGER_TICKS) {
+                lingering.remove(player.getUsernameHash(), player);
+                queueLogout(player);
+            }
+        }
+
         for (int amount = 0; amount < EntityConstants.LOGOUT_THRESHOLD; amount++) {
             Player player = logouts.poll();
             if (player == null) {
@@ -131,6 +221,36 @@ public final class World {
         synchronizer.postSynchronize();
     }
 
+    /**
+     * Sends {@code msg} to every player. The message is only encoded once, so {@code msg} must not depend on the
+     * {@link Player} argument given to {@code MessageWriter.write(Player)}, which will be {@code null}.
+     */
+    public void broadcast(MessageWriter msg) {
+        broadcast(msg, playerList);
+    }
+
+    /**
+     * Sends {@code msg} to every player that passes {@code filter}. The message is only encoded once.
+     */
+    public void broadcast(MessageWriter msg, Predicate<Player> filter) {
+        broadcast(msg, Iterables.filter(playerList, filter::test));
+    }
+
+    /**
+     * Sends {@code msg} to each player within {@code recipients}. The message is only encoded once, and every
+     * recipient's session writes a retained duplicate of the encoded buffer.
+     */
+    public void broadcast(MessageWriter msg, Iterable<Player> recipients) {
+        ByteMessage encoded = msg.write(null);
+        try {
+            for (Player player : recipients) {
+                player.getSession().queueShared(encoded, msg.getDeliveryPolicy());
+            }
+        } finally {
+            encoded.release();
+        }
+    }
+
     /**
      * Retrieves a player by their username hash. Faster than {@code getPlayer(String)}.
      */
@@ -145,6 +265,13 @@ public final class World {
         return playerList.findFirst(player -> player.getUsername().equals(username));
     }
 
+    /**
+     * @return {@code true} if the server is shutting down and no longer accepting logins.
+     */
+    public boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
     /**
      * @return The context instance.
      */
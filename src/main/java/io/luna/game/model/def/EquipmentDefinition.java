@@ -62,6 +62,16 @@ public final class EquipmentDefinition {
      */
     private static final Map<Integer, EquipmentDefinition> DEFINITIONS = new LinkedHashMap<>();
 
+    /**
+     * The amount of bonuses an item has.
+     */
+    public static final int BONUS_COUNT = 12;
+
+    /**
+     * The bonuses of every item, {@link #BONUS_COUNT} values per identifier.
+     */
+    private static final int[] BONUSES = new int[ItemDefinition.SIZE * BONUS_COUNT];
+
     /**
      * Sets the backing definitions.
      */
@@ -69,6 +79,13 @@ public final class EquipmentDefinition {
         ThreadUtils.ensureInitThread();
 
         DEFINITIONS.putAll(newDefinitions);
+        for (EquipmentDefinition def : newDefinitions.values()) {
+            int offset = def.id * BONUS_COUNT;
+            int count = Math.min(def.bonuses.size(), BONUS_COUNT);
+            for (int index = 0; index < count; index++) {
+                BONUSES[offset + index] = def.bonuses.get(index);
+            }
+        }
     }
 
     /**
@@ -89,6 +106,14 @@ public final class EquipmentDefinition {
         return DEFINITIONS.values();
     }
 
+    /**
+     * Returns the bonus on {@code index} of {@code id}, without looking up its definition. Items that can't be
+     * equipped have no bonuses.
+     */
+    public static int computeBonusForId(int id, int index) {
+        return BONUSES[id * BONUS_COUNT + index];
+    }
+
     /**
      * The identifier.
      */
@@ -31,6 +31,11 @@ public final class ItemDefinition {
      */
     private static final IterableArray<ItemDefinition> DEFINITIONS = new IterableArray<>(SIZE);
 
+    /**
+     * The weight of every item, by identifier.
+     */
+    private static final double[] WEIGHTS = new double[SIZE];
+
     /**
      * Sets the backing definitions.
      */
@@ -38,6 +43,10 @@ public final class ItemDefinition {
         ThreadUtils.ensureInitThread();
 
         System.arraycopy(definitions, 0, DEFINITIONS.getArray(), 0, SIZE);
+        for (int id = 0; id < SIZE; id++) {
+            ItemDefinition def = definitions[id];
+            WEIGHTS[id] = def == null ? 0.0 : def.weight;
+        }
     }
 
     /**
@@ -65,6 +74,13 @@ public final class ItemDefinition {
         return get(id).getName();
     }
 
+    /**
+     * Returns the weight of {@code id}, without looking up its definition.
+     */
+    public static double computeWeightForId(int id) {
+        return WEIGHTS[id];
+    }
+
     /**
      * The identifier.
      */
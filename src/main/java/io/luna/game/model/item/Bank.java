@@ -38,6 +38,37 @@ public final class Bank extends ItemContainer {
         }
     }
 
+    /**
+     * An adapter displaying inventory changes on the inventory overlay, added to the inventory only while it's
+     * being changed by a deposit or withdrawal.
+     */
+    private final class InventoryOverlayListener extends ItemContainerAdapter {
+
+        /**
+         * Creates a new {@link InventoryOverlayListener}.
+         */
+        public InventoryOverlayListener() {
+            super(player);
+        }
+
+        /**
+         * This implementation does nothing, the inventory's own listener already sends the message.
+         */
+        @Override
+        public void onCapacityExceeded(ItemContainer items) {
+        }
+
+        @Override
+        public int getWidgetId() {
+            return INVENTORY_DISPLAY_ID;
+        }
+
+        @Override
+        public String getCapacityExceededMsg() {
+            return Inventory.CAPACITY_EXCEEDED_MSG;
+        }
+    }
+
     /**
      * The size.
      */
@@ -78,6 +109,11 @@ public final class Bank extends ItemContainer {
      */
     private final Inventory inventory;
 
+    /**
+     * The inventory overlay listener.
+     */
+    private final InventoryOverlayListener overlayListener;
+
     /**
      * Creates a new {@link Bank}.
      *
@@ -87,6 +123,7 @@ public final class Bank extends ItemContainer {
         super(SIZE, StackPolicy.ALWAYS);
         this.player = player;
         inventory = player.getInventory();
+        overlayListener = new InventoryOverlayListener();
 
         addListener(new BankListener());
     }
@@ -129,12 +166,16 @@ public final class Bank extends ItemContainer {
             return false;
         }
 
-        if (inventory.remove(inventoryItem)) {
-            add(depositItem);
-            refresh();
-            return true;
+        inventory.addListener(overlayListener);
+        try {
+            if (inventory.removeAll(inventoryItem)) {
+                add(depositItem);
+                return true;
+            }
+            return false;
+        } finally {
+            inventory.removeListener(overlayListener);
         }
-        return false;
     }
 
     /**
@@ -177,8 +218,12 @@ public final class Bank extends ItemContainer {
         withdrawItem = withdrawItem.createWithAmount(amount);
 
         if (remove(bankItem)) {
-            inventory.add(withdrawItem);
-            refresh();
+            inventory.addListener(overlayListener);
+            try {
+                inventory.addAll(withdrawItem);
+            } finally {
+                inventory.removeListener(overlayListener);
+            }
             return true;
         }
         return false;
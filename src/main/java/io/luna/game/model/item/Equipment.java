@@ -14,7 +14,6 @@ import io.luna.net.msg.out.WidgetTextMessageWriter;
 
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.stream.IntStream;
 
 /**
  * An item container model representing a player's equipment.
@@ -49,8 +48,6 @@ public final class Equipment extends ItemContainer {
         public void onSingleUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem, int index) {
             super.onSingleUpdate(items, oldItem, newItem, index);
 
-            updateBonus(oldItem, newItem);
-            writeBonuses();
             sendEvent(oldItem, newItem, index);
         }
 
@@ -58,17 +55,9 @@ public final class Equipment extends ItemContainer {
         public void onBulkUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem, int index) {
             super.onBulkUpdate(items, oldItem, newItem, index);
 
-            updateBonus(oldItem, newItem);
             sendEvent(oldItem, newItem, index);
         }
 
-        @Override
-        public void onBulkUpdateCompleted(ItemContainer items) {
-            super.onBulkUpdateCompleted(items);
-
-            writeBonuses();
-        }
-
         /**
          * Posts an equipment change event.
          */
@@ -78,6 +67,30 @@ public final class Equipment extends ItemContainer {
         }
     }
 
+    /**
+     * A listener that keeps the bonuses up to date.
+     */
+    private final class BonusListener implements PrimitiveItemContainerListener {
+
+        @Override
+        public void onSingleUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId,
+                                   int newAmount) {
+            updateBonus(oldId, oldAmount, newId, newAmount);
+            writeBonuses();
+        }
+
+        @Override
+        public void onBulkUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId,
+                                 int newAmount) {
+            updateBonus(oldId, oldAmount, newId, newAmount);
+        }
+
+        @Override
+        public void onBulkUpdateCompleted(ItemContainer items) {
+            writeBonuses();
+        }
+    }
+
     /**
      * The head index.
      */
@@ -233,7 +246,7 @@ public final class Equipment extends ItemContainer {
     /**
      * An array of equipment bonuses.
      */
-    private final int[] bonuses = new int[12];
+    private final int[] bonuses = new int[EquipmentDefinition.BONUS_COUNT];
 
     /**
      * Creates a new {@link Equipment}.
@@ -246,6 +259,7 @@ public final class Equipment extends ItemContainer {
         inventory = player.getInventory();
 
         addListener(new EquipmentListener());
+        addListener(new BonusListener());
         addListener(new ItemWeightListener(player));
     }
 
@@ -392,24 +406,23 @@ public final class Equipment extends ItemContainer {
     }
 
     /**
-     * Updates bonuses for two potential items.
+     * Updates bonuses for two potential items, where an amount of {@code 0} marks no item.
      */
-    private void updateBonus(Optional<Item> oldItem, Optional<Item> newItem) {
-        Optional<Integer> oldId = oldItem.map(Item::getId);
-        Optional<Integer> newId = newItem.map(Item::getId);
-        if (oldId.equals(newId)) {
+    private void updateBonus(int oldId, int oldAmount, int newId, int newAmount) {
+        int removedId = oldAmount > 0 ? oldId : -1;
+        int addedId = newAmount > 0 ? newId : -1;
+        if (removedId == addedId) {
             return;
         }
 
-        IntStream indexes = IntStream.range(0, bonuses.length);
-
-        oldItem.map(Item::getEquipDef).
-            map(EquipmentDefinition::getBonuses).
-            ifPresent(it -> indexes.forEach(index -> bonuses[index] -= it.get(index)));
-
-        newItem.map(Item::getEquipDef).
-            map(EquipmentDefinition::getBonuses).
-            ifPresent(it -> indexes.forEach(index -> bonuses[index] += it.get(index)));
+        for (int index = 0; index < bonuses.length; index++) {
+            if (removedId != -1) {
+                bonuses[index] -= EquipmentDefinition.computeBonusForId(removedId, index);
+            }
+            if (addedId != -1) {
+                bonuses[index] += EquipmentDefinition.computeBonusForId(addedId, index);
+            }
+        }
     }
 
     /**
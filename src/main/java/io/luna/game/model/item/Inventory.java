@@ -28,10 +28,20 @@ public final class Inventory extends ItemContainer {
 
         @Override
         public String getCapacityExceededMsg() {
-            return "You do not have enough space in your inventory.";
+            return CAPACITY_EXCEEDED_MSG;
         }
     }
 
+    /**
+     * The size.
+     */
+    public static final int SIZE = 28;
+
+    /**
+     * The message sent when the capacity is exceeded.
+     */
+    static final String CAPACITY_EXCEEDED_MSG = "You do not have enough space in your inventory.";
+
     /**
      * The inventory item display.
      */
@@ -48,7 +58,7 @@ public final class Inventory extends ItemContainer {
      * @param player The player.
      */
     public Inventory(Player player) {
-        super(28, StackPolicy.STANDARD);
+        super(SIZE, StackPolicy.STANDARD);
         this.player = player;
 
         addListener(new InventoryListener());
@@ -1,13 +1,13 @@
 package io.luna.game.model.item;
 
-import com.google.common.collect.Iterables;
+import com.google.common.math.IntMath;
 import com.google.common.primitives.Ints;
+import io.luna.game.model.def.ItemDefinition;
 import io.luna.net.msg.out.WidgetItemGroupMessageWriter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,7 +23,9 @@ import static io.luna.game.model.item.ItemContainer.StackPolicy.ALWAYS;
 import static io.luna.game.model.item.ItemContainer.StackPolicy.STANDARD;
 
 /**
- * A model representing a group of items.
+ * A model representing a group of items. Items are stored as parallel arrays of identifiers and amounts, and the
+ * index of every stacking item is tracked so that stacking never scans the container. {@link Item}s are only
+ * created when they're read, and are cached until their index changes.
  *
  * @author lare96 <http://github.com/lare96>
  */
@@ -55,19 +57,16 @@ public class ItemContainer implements Iterable<Item> {
 
             lastIndex = index;
             index++;
-            return items[lastIndex];
+            return view(lastIndex);
         }
 
         @Override
         public void remove() {
             checkState(lastIndex != -1, "can only be called once after 'next'");
 
-            Item oldItem = items[lastIndex];
-
-            items[lastIndex] = null;
-            size--;
-
-            fireUpdateEvent(oldItem, null, lastIndex);
+            if (amounts[lastIndex] > 0) {
+                update(lastIndex, 0, 0, null);
+            }
 
             index = lastIndex;
             lastIndex = -1;
@@ -95,11 +94,142 @@ public class ItemContainer implements Iterable<Item> {
         NEVER
     }
 
+    /**
+     * An enum representing the results of committing a {@link Transaction}.
+     */
+    public enum TransactionResult {
+
+        /**
+         * Every item was removed and added.
+         */
+        SUCCESS,
+
+        /**
+         * An item being removed isn't present.
+         */
+        MISSING_ITEMS,
+
+        /**
+         * There isn't enough space for an item being added.
+         */
+        NOT_ENOUGH_SPACE
+    }
+
+    /**
+     * A set of removals and additions that are applied together. Every removal is applied before any addition.
+     * If any of them fail, the container is rolled back to its state before the commit. Otherwise, listeners
+     * receive one bulk update for each index that changed, and a single completion event.
+     */
+    public final class Transaction {
+
+        /**
+         * The items to remove.
+         */
+        private final List<Item> removals = new ArrayList<>();
+
+        /**
+         * The items to add.
+         */
+        private final List<Item> additions = new ArrayList<>();
+
+        /**
+         * Creates a new {@link Transaction}.
+         */
+        private Transaction() {
+        }
+
+        /**
+         * Queues {@code items} to be removed. {@code null} values are skipped.
+         */
+        public Transaction remove(Item... items) {
+            return remove(Arrays.asList(items));
+        }
+
+        /**
+         * Queues {@code items} to be removed. {@code null} values are skipped.
+         */
+        public Transaction remove(Iterable<? extends Item> items) {
+            items.forEach(removals::add);
+            return this;
+        }
+
+        /**
+         * Queues {@code items} to be added. {@code null} values are skipped.
+         */
+        public Transaction add(Item... items) {
+            return add(Arrays.asList(items));
+        }
+
+        /**
+         * Queues {@code items} to be added. {@code null} values are skipped.
+         */
+        public Transaction add(Iterable<? extends Item> items) {
+            items.forEach(additions::add);
+            return this;
+        }
+
+        /**
+         * Applies every removal and addition, or none of them. A capacity exceeded event is fired if there isn't
+         * enough space.
+         */
+        public TransactionResult commit() {
+            checkState(!inTransaction, "transaction already in progress");
+
+            save();
+            inTransaction = true;
+            TransactionResult result;
+            try {
+                result = apply();
+            } finally {
+                inTransaction = false;
+            }
+
+            if (result == TransactionResult.SUCCESS) {
+                fireTransactionEvents();
+            } else {
+                restore();
+                if (result == TransactionResult.NOT_ENOUGH_SPACE) {
+                    fireCapacityExceededEvent();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Applies every removal and then every addition, stopping at the first that can't be applied in full.
+         */
+        private TransactionResult apply() {
+            for (Item item : removals) {
+                if (item == null) {
+                    continue;
+                }
+                if (computeAmountForId(item.getId()) < item.getAmount()) {
+                    return TransactionResult.MISSING_ITEMS;
+                }
+                ItemContainer.this.remove(item);
+            }
+            for (Item item : additions) {
+                if (item == null) {
+                    continue;
+                }
+                if (!hasCapacityFor(item) || !ItemContainer.this.add(item)) {
+                    return TransactionResult.NOT_ENOUGH_SPACE;
+                }
+            }
+            return TransactionResult.SUCCESS;
+        }
+    }
+
     /**
      * A list of listeners.
      */
     private final List<ItemContainerListener> listeners = new ArrayList<>();
 
+    /**
+     * A list of listeners that receive identifiers and amounts instead of items.
+     */
+    private final List<PrimitiveItemContainerListener> primitiveListeners = new ArrayList<>();
+
     /**
      * The capacity.
      */
@@ -111,9 +241,24 @@ public class ItemContainer implements Iterable<Item> {
     private final StackPolicy policy;
 
     /**
-     * The items.
+     * The item identifiers.
+     */
+    private final int[] ids;
+
+    /**
+     * The item amounts, where {@code 0} marks an empty index.
      */
-    private final Item[] items;
+    private final int[] amounts;
+
+    /**
+     * The cached views of each item, created when first read.
+     */
+    private final Item[] views;
+
+    /**
+     * The indexes of stacking items.
+     */
+    private final ItemStackIndex stackIndex;
 
     /**
      * The size.
@@ -130,6 +275,26 @@ public class ItemContainer implements Iterable<Item> {
      */
     private boolean bulkOperation;
 
+    /**
+     * If a transaction is being applied.
+     */
+    private boolean inTransaction;
+
+    /**
+     * The identifiers saved before a transaction, created by the first transaction.
+     */
+    private int[] savedIds;
+
+    /**
+     * The amounts saved before a transaction, created by the first transaction.
+     */
+    private int[] savedAmounts;
+
+    /**
+     * The views saved before a transaction, created by the first transaction.
+     */
+    private Item[] savedViews;
+
     /**
      * Creates a new {@link ItemContainer}.
      *
@@ -139,7 +304,10 @@ public class ItemContainer implements Iterable<Item> {
     public ItemContainer(int capacity, StackPolicy policy) {
         this.capacity = capacity;
         this.policy = policy;
-        items = new Item[capacity];
+        ids = new int[capacity];
+        amounts = new int[capacity];
+        views = new Item[capacity];
+        stackIndex = new ItemStackIndex(capacity);
     }
 
     /**
@@ -149,17 +317,15 @@ public class ItemContainer implements Iterable<Item> {
     public final void forEach(Consumer<? super Item> action) {
         Objects.requireNonNull(action);
         for (int index = 0; index < capacity; index++) {
-            Item item = items[index];
-            if (item == null) {
-                continue;
+            if (amounts[index] > 0) {
+                action.accept(view(index));
             }
-            action.accept(item);
         }
     }
 
     @Override
     public final Spliterator<Item> spliterator() {
-        return Spliterators.spliterator(items, Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED);
+        return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED);
     }
 
     @Override
@@ -180,15 +346,16 @@ public class ItemContainer implements Iterable<Item> {
     public boolean add(Item item, int preferredIndex) {
         checkArgument(preferredIndex >= -1, "invalid index");
 
+        int id = item.getId();
         boolean stackable = isStackable(item);
         if (stackable) {
-            preferredIndex = computeIndexForId(item.getId()).orElse(-1);
+            preferredIndex = indexOf(id);
         } else if (preferredIndex != -1) {
-            preferredIndex = items[preferredIndex] != null ? -1 : preferredIndex;
+            preferredIndex = amounts[preferredIndex] > 0 ? -1 : preferredIndex;
         }
 
         if (preferredIndex == -1) {
-            preferredIndex = computeFreeIndex().orElse(-1);
+            preferredIndex = nextFreeIndex();
         }
 
         if (preferredIndex == -1) { /* Not enough space in container. */
@@ -197,31 +364,21 @@ public class ItemContainer implements Iterable<Item> {
         }
 
         if (stackable) {
-            Item current = items[preferredIndex];
-
-            if (current == null) {
-                items[preferredIndex] = item;
-                size++;
+            int current = amounts[preferredIndex];
+            if (current == 0) {
+                update(preferredIndex, id, item.getAmount(), item);
             } else {
-                items[preferredIndex] = current.createAndIncrement(item.getAmount());
+                update(preferredIndex, id, IntMath.saturatedAdd(current, item.getAmount()), null);
             }
-
-            fireUpdateEvent(current, items[preferredIndex], preferredIndex);
         } else {
             int remaining = computeRemainingSize();
             int until = (remaining > item.getAmount()) ? item.getAmount() : remaining;
 
             for (int index = 0; index < until; index++) {
-
-                if (items[preferredIndex] != null) {
-                    preferredIndex = computeFreeIndex().get();
+                if (preferredIndex >= capacity || amounts[preferredIndex] > 0) {
+                    preferredIndex = nextFreeIndex();
                 }
-
-                Item newItem = new Item(item.getId());
-                items[preferredIndex] = newItem;
-                size++;
-
-                fireUpdateEvent(null, newItem, preferredIndex++);
+                update(preferredIndex++, id, 1, null);
             }
         }
         return true;
@@ -264,19 +421,88 @@ public class ItemContainer implements Iterable<Item> {
         return addAll(Arrays.asList(items));
     }
 
+    /**
+     * Returns a new transaction on this container.
+     */
+    public Transaction transaction() {
+        return new Transaction();
+    }
+
+    /**
+     * Saves the contents of this container before a transaction.
+     */
+    private void save() {
+        if (savedIds == null) {
+            savedIds = new int[capacity];
+            savedAmounts = new int[capacity];
+            savedViews = new Item[capacity];
+        }
+        System.arraycopy(ids, 0, savedIds, 0, capacity);
+        System.arraycopy(amounts, 0, savedAmounts, 0, capacity);
+        System.arraycopy(views, 0, savedViews, 0, capacity);
+    }
+
+    /**
+     * Restores the contents of this container saved before a transaction.
+     */
+    private void restore() {
+        System.arraycopy(savedIds, 0, ids, 0, capacity);
+        System.arraycopy(savedAmounts, 0, amounts, 0, capacity);
+        System.arraycopy(savedViews, 0, views, 0, capacity);
+        Arrays.fill(savedViews, null);
+        reindex();
+    }
+
+    /**
+     * Fires a bulk update event for every index changed by a transaction, followed by a single bulk update
+     * completed event.
+     */
+    private void fireTransactionEvents() {
+        boolean changed = false;
+        if (isFiring()) {
+            bulkOperation = true;
+            try {
+                for (int index = 0; index < capacity; index++) {
+                    int oldAmount = savedAmounts[index];
+                    if (oldAmount == amounts[index] && (oldAmount == 0 || savedIds[index] == ids[index])) {
+                        continue;
+                    }
+
+                    Item oldItem = null;
+                    if (!listeners.isEmpty()) {
+                        oldItem = savedViews[index];
+                        if (oldItem == null && oldAmount > 0) {
+                            oldItem = new Item(savedIds[index], oldAmount);
+                        }
+                    }
+                    fireUpdateEvent(index, savedIds[index], oldAmount, oldItem);
+                    changed = true;
+                }
+            } finally {
+                bulkOperation = false;
+            }
+        }
+        Arrays.fill(savedViews, null);
+
+        if (changed) {
+            fireUpdateCompletedEvent();
+        }
+    }
+
     /**
      * Attempts to remove {@code item} at {@code preferredIndex}. Returns {@code true} if successful.
      */
     public boolean remove(Item item, int preferredIndex) {
         checkArgument(preferredIndex >= -1, "invalid index identifier");
 
+        int id = item.getId();
         boolean stackable = isStackable(item);
         if (stackable) {
-            preferredIndex = computeIndexForId(item.getId()).orElse(-1);
+            preferredIndex = indexOf(id);
         } else {
-            preferredIndex = preferredIndex == -1 ? computeIndexForId(item.getId()).orElse(-1) : preferredIndex;
+            preferredIndex = preferredIndex == -1 ? indexOf(id) : preferredIndex;
 
-            if (preferredIndex != -1 && items[preferredIndex] == null) {
+            if (preferredIndex != -1 && amounts[preferredIndex] == 0) {
                 preferredIndex = -1;
             }
         }
@@ -286,28 +512,21 @@ public class ItemContainer implements Iterable<Item> {
         }
 
         if (stackable) {
-            Item current = items[preferredIndex];
-            if (current.getAmount() > item.getAmount()) {
-                items[preferredIndex] = current.createAndDecrement(item.getAmount());
+            int current = amounts[preferredIndex];
+            if (current > item.getAmount()) {
+                update(preferredIndex, id, current - item.getAmount(), null);
             } else {
-                items[preferredIndex] = null;
-                size--;
+                update(preferredIndex, 0, 0, null);
             }
-
-            fireUpdateEvent(current, items[preferredIndex], preferredIndex);
         } else {
-            int until = computeAmountForId(item.getId());
+            int until = computeAmountForId(id);
             until = (item.getAmount() > until) ? until : item.getAmount();
 
             for (int index = 0; index < until; index++) {
-                preferredIndex = (items[preferredIndex] != null && items[preferredIndex].getId() == item.getId()) ?
-                    preferredIndex : computeIndexForId(item.getId()).orElse(-1);
-
-                Item oldItem = items[preferredIndex];
-                items[preferredIndex] = null;
-                size--;
-
-                fireUpdateEvent(oldItem, null, preferredIndex++);
+                if (preferredIndex >= capacity || amounts[preferredIndex] == 0 || ids[preferredIndex] != id) {
+                    preferredIndex = indexOf(id);
+                }
+                update(preferredIndex++, 0, 0, null);
             }
         }
         return true;
@@ -354,25 +573,47 @@ public class ItemContainer implements Iterable<Item> {
      * Computes the next free index.
      */
     public final Optional<Integer> computeFreeIndex() {
+        int index = nextFreeIndex();
+        return index == -1 ? Optional.empty() : Optional.of(index);
+    }
+
+    /**
+     * Returns the next free index, or {@code -1} if there are none.
+     */
+    public final int nextFreeIndex() {
         for (int index = 0; index < capacity; index++) {
-            if (items[index] == null) {
-                return Optional.of(index);
+            if (amounts[index] == 0) {
+                return index;
             }
         }
-        return Optional.empty();
+        return -1;
     }
 
     /**
      * Computes the next index that {@code id} is found in.
      */
     public final Optional<Integer> computeIndexForId(int id) {
+        int index = indexOf(id);
+        return index == -1 ? Optional.empty() : Optional.of(index);
+    }
+
+    /**
+     * Returns the next index that {@code id} is found in, or {@code -1} if it isn't present. Stacking items are
+     * found without scanning.
+     */
+    public final int indexOf(int id) {
+        if (!Item.isIdWithinRange(id)) {
+            return -1;
+        }
+        if (isStackable(id)) {
+            return stackIndex.get(id);
+        }
         for (int index = 0; index < capacity; index++) {
-            Item item = items[index];
-            if (item != null && item.getId() == id) {
-                return Optional.of(index);
+            if (amounts[index] > 0 && ids[index] == id) {
+                return index;
             }
         }
-        return Optional.empty();
+        return -1;
     }
 
     /**
@@ -380,11 +621,10 @@ public class ItemContainer implements Iterable<Item> {
      */
     public final int computeAmountForId(int id) {
         int amount = 0;
-        for (Item item : items) {
-            if (item == null || item.getId() != id) {
-                continue;
+        for (int index = 0; index < capacity; index++) {
+            if (amounts[index] > 0 && ids[index] == id) {
+                amount += amounts[index];
             }
-            amount += item.getAmount();
         }
         return amount;
     }
@@ -393,14 +633,14 @@ public class ItemContainer implements Iterable<Item> {
      * Computes the identifier at {@code index}.
      */
     public final Optional<Integer> computeIdForIndex(int index) {
-        return retrieve(index).map(Item::getId);
+        return occupied(index) ? Optional.of(ids[index]) : Optional.empty();
     }
 
     /**
      * Computes the amount at {@code index}.
      */
     public final int computeAmountForIndex(int index) {
-        return retrieve(index).map(Item::getAmount).orElse(0);
+        return getAmount(index);
     }
 
     /**
@@ -411,14 +651,13 @@ public class ItemContainer implements Iterable<Item> {
         for (Item item : forItems) {
             boolean stackable = isStackable(item);
             if (stackable) {
-                int index = computeIndexForId(item.getId()).orElse(-1);
+                int index = indexOf(item.getId());
                 if (index == -1) {
                     size++;
                     continue;
                 }
 
-                Item existing = items[index];
-                if ((existing.getAmount() + item.getAmount()) <= 0) {
+                if ((amounts[index] + item.getAmount()) <= 0) {
                     size++;
                 }
             } else {
@@ -439,20 +678,15 @@ public class ItemContainer implements Iterable<Item> {
      * Replaces the first occurrence of {@code oldId} with {@code newId}. Returns {@code true} if successful.
      */
     public final boolean replace(int oldId, int newId) {
-        Optional<Integer> oldIndex = computeIndexForId(oldId);
-        if (!oldIndex.isPresent()) {
+        int index = indexOf(oldId);
+        if (index == -1) {
             return false;
         }
-        int index = oldIndex.get();
-
-        Item oldItem = items[index];
         Item newItem = new Item(newId);
 
-        checkState(!isStackable(oldItem) && !isStackable(newItem), "use add(Item) and remove(Item) instead");
+        checkState(!isStackable(oldId) && !isStackable(newId), "use add(Item) and remove(Item) instead");
 
-        items[index] = null;
-        items[index] = newItem;
-        fireUpdateEvent(oldItem, newItem, index);
+        update(index, newId, 1, newItem);
         return true;
     }
 
@@ -486,7 +720,7 @@ public class ItemContainer implements Iterable<Item> {
      * Determines if an item with {@code id} is present.
      */
     public final boolean contains(int id) {
-        return computeIndexForId(id).isPresent();
+        return indexOf(id) != -1;
     }
 
     /**
@@ -531,7 +765,12 @@ public class ItemContainer implements Iterable<Item> {
      * Determines if {@code item} is present.
      */
     public final boolean contains(Item item) {
-        return stream().anyMatch(it -> it.getId() == item.getId() && it.getAmount() >= item.getAmount());
+        for (int index = 0; index < capacity; index++) {
+            if (amounts[index] > 0 && ids[index] == item.getId() && amounts[index] >= item.getAmount()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -576,14 +815,21 @@ public class ItemContainer implements Iterable<Item> {
      * Determines if {@code item} will stack when added.
      */
     public final boolean isStackable(Item item) {
-        return (policy == STANDARD && item.getItemDef().isStackable()) || policy == ALWAYS;
+        return isStackable(item.getId());
+    }
+
+    /**
+     * Determines if items with {@code id} will stack when added.
+     */
+    public final boolean isStackable(int id) {
+        return (policy == STANDARD && ItemDefinition.get(id).isStackable()) || policy == ALWAYS;
     }
 
     /**
      * Returns a message that will display these items on {@code widget}.
      */
     public final WidgetItemGroupMessageWriter constructRefresh(int widget) {
-        return new WidgetItemGroupMessageWriter(widget, items);
+        return new WidgetItemGroupMessageWriter(widget, ids, amounts);
     }
 
     /**
@@ -628,31 +874,58 @@ public class ItemContainer implements Iterable<Item> {
         checkArgument(firstIndex >= 0 && firstIndex < capacity, "firstIndex out of range");
         checkArgument(secondIndex >= 0 && secondIndex < capacity, "secondIndex out of range");
 
-        Item itemOld = items[firstIndex];
-        Item itemNew = items[secondIndex];
-
-        items[firstIndex] = itemNew;
-        items[secondIndex] = itemOld;
+        boolean firing = isFiring();
+        boolean firingViews = firing && !listeners.isEmpty();
+        Item itemOld = firingViews ? view(firstIndex) : null;
+        Item itemNew = firingViews ? view(secondIndex) : null;
+
+        int firstId = ids[firstIndex];
+        int firstAmount = amounts[firstIndex];
+        int secondId = ids[secondIndex];
+        int secondAmount = amounts[secondIndex];
+        Item firstView = views[firstIndex];
+        ids[firstIndex] = ids[secondIndex];
+        amounts[firstIndex] = amounts[secondIndex];
+        views[firstIndex] = views[secondIndex];
+        ids[secondIndex] = firstId;
+        amounts[secondIndex] = firstAmount;
+        views[secondIndex] = firstView;
+
+        moveStack(secondIndex, firstIndex);
+        moveStack(firstIndex, secondIndex);
+
+        if (firing) {
+            fireUpdateEvent(firstIndex, firstId, firstAmount, itemOld);
+            fireUpdateEvent(secondIndex, secondId, secondAmount, itemNew);
+        }
+    }
 
-        fireUpdateEvent(itemOld, items[firstIndex], firstIndex);
-        fireUpdateEvent(itemNew, items[secondIndex], secondIndex);
+    /**
+     * Updates the stack index after the item on {@code oldIndex} was moved to {@code newIndex}.
+     */
+    private void moveStack(int oldIndex, int newIndex) {
+        int id = ids[newIndex];
+        if (amounts[newIndex] > 0 && isStackable(id) && stackIndex.get(id) == oldIndex) {
+            stackIndex.put(id, newIndex);
+        }
     }
 
     /**
      * Shifts all items to the left.
      */
     public final void shift() { /* TODO: fire events? */
-        Item[] newItems = new Item[capacity];
         int newIndex = 0;
-
-        for (Item item : items) {
-            if (item == null) {
-                continue;
+        for (int index = 0; index < capacity; index++) {
+            if (amounts[index] > 0) {
+                ids[newIndex] = ids[index];
+                amounts[newIndex] = amounts[index];
+                views[newIndex] = views[index];
+                newIndex++;
             }
-            newItems[newIndex++] = item;
         }
-
-        setItems(newItems);
+        Arrays.fill(amounts, newIndex, capacity, 0);
+        Arrays.fill(views, newIndex, capacity, null);
+        reindex();
     }
 
     /**
@@ -661,18 +934,61 @@ public class ItemContainer implements Iterable<Item> {
     public final void setItems(Item[] newItems) { /* TODO: fire events? */
         checkArgument(newItems.length <= capacity, "newItems.length must be <= capacity");
 
-        System.arraycopy(newItems, 0, items, 0, capacity);
+        for (int index = 0; index < capacity; index++) {
+            Item item = index < newItems.length ? newItems[index] : null;
+            ids[index] = item == null ? 0 : item.getId();
+            amounts[index] = item == null ? 0 : item.getAmount();
+            views[index] = item;
+        }
+        reindex();
     }
 
     /**
      * Sets the backing array to {@code newItems} (deep copy).
      */
     public final void setItems(IndexedItem[] newItems) { /* TODO: fire events? */
-        Arrays.fill(items, null);
-        size = 0;
+        Arrays.fill(amounts, 0);
+        Arrays.fill(views, null);
         for (IndexedItem item : newItems) {
-            items[item.getIndex()] = new Item(item.getId(), item.getAmount());
-            size++;
+            ids[item.getIndex()] = item.getId();
+            amounts[item.getIndex()] = item.getAmount();
+        }
+        reindex();
+    }
+
+    /**
+     * Sets the backing array from parallel arrays of identifiers and amounts, where an amount of {@code 0} marks an
+     * empty index.
+     */
+    public final void setItems(int[] ids, int[] amounts) { /* TODO: fire events? */
+        checkArgument(ids.length == amounts.length, "ids.length != amounts.length");
+        checkArgument(ids.length <= capacity, "ids.length must be <= capacity");
+
+        Arrays.fill(this.amounts, 0);
+        Arrays.fill(views, null);
+        for (int index = 0; index < ids.length; index++) {
+            if (amounts[index] > 0) {
+                this.ids[index] = ids[index];
+                this.amounts[index] = amounts[index];
+            }
+        }
+        reindex();
+    }
+
+    /**
+     * Recomputes the size and stack index after the backing arrays were replaced.
+     */
+    private void reindex() {
+        size = 0;
+        stackIndex.clear();
+        for (int index = 0; index < capacity; index++) {
+            if (amounts[index] > 0) {
+                size++;
+                int id = ids[index];
+                if (isStackable(id) && stackIndex.get(id) == -1) {
+                    stackIndex.put(id, index);
+                }
+            }
         }
     }
 
@@ -680,64 +996,130 @@ public class ItemContainer implements Iterable<Item> {
      * Returns a shallow copy of the array of items.
      */
     public final Item[] toArray() {
-        return Arrays.copyOf(items, items.length);
+        Item[] items = new Item[capacity];
+        for (int index = 0; index < capacity; index++) {
+            items[index] = view(index);
+        }
+        return items;
     }
 
     /**
      * Returns the backing array as an array of indexed items.
      */
     public final IndexedItem[] toIndexedArray() {
-        List<IndexedItem> indexedItems = new LinkedList<>();
+        List<IndexedItem> indexedItems = new ArrayList<>(size);
         for (int index = 0; index < capacity; index++) {
-            Item item = items[index];
-            if (item == null) {
-                continue;
+            if (amounts[index] > 0) {
+                indexedItems.add(new IndexedItem(index, view(index)));
             }
-            indexedItems.add(new IndexedItem(index, item));
         }
-        return Iterables.toArray(indexedItems, IndexedItem.class);
+        return indexedItems.toArray(new IndexedItem[0]);
     }
 
     /**
      * Sets {@code index} to {@code item}.
      */
     public final void set(int index, Item item) {
-        boolean indexFree = items[index] == null;
-        boolean removingItem = item == null;
+        if (item == null) {
+            update(index, 0, 0, null);
+        } else {
+            update(index, item.getId(), item.getAmount(), item);
+        }
+    }
+
+    /**
+     * Sets {@code index} to {@code amount} of {@code id}, or empties it if {@code amount} is {@code 0}, and fires
+     * an update event. {@code item} is the view of the new item if one already exists.
+     */
+    private void update(int index, int id, int amount, Item item) {
+        boolean firing = isFiring();
+        Item oldItem = firing && !listeners.isEmpty() ? view(index) : null;
 
-        if (indexFree && !removingItem) {
-            size++;
-        } else if (!indexFree && removingItem) {
-            size--;
+        /* Unindex the old stack, falling back to any other index that holds the same identifier. */
+        int oldId = ids[index];
+        int oldAmount = amounts[index];
+        boolean wasOccupied = oldAmount > 0;
+        if (wasOccupied && (amount == 0 || oldId != id) && isStackable(oldId) && stackIndex.get(oldId) == index) {
+            stackIndex.remove(oldId);
+            for (int other = 0; other < capacity; other++) {
+                if (other != index && amounts[other] > 0 && ids[other] == oldId) {
+                    stackIndex.put(oldId, other);
+                    break;
+                }
+            }
         }
 
-        Item oldItem = items[index];
-        items[index] = item;
+        if (amount > 0) {
+            if (!wasOccupied) {
+                size++;
+            }
+            ids[index] = id;
+            amounts[index] = amount;
+            if (isStackable(id) && stackIndex.get(id) == -1) {
+                stackIndex.put(id, index);
+            }
+        } else {
+            if (wasOccupied) {
+                size--;
+            }
+            amounts[index] = 0;
+        }
+        views[index] = item;
+
+        if (firing) {
+            fireUpdateEvent(index, oldId, oldAmount, oldItem);
+        }
+    }
+
+    /**
+     * Returns the view of the item at {@code index}, creating it if needed.
+     */
+    private Item view(int index) {
+        if (amounts[index] == 0) {
+            return null;
+        }
 
-        fireUpdateEvent(oldItem, items[index], index);
+        Item item = views[index];
+        if (item == null) {
+            item = new Item(ids[index], amounts[index]);
+            views[index] = item;
+        }
+        return item;
     }
 
     /**
      * Retrieves the item at {@code index}.
      */
     public final Optional<Item> retrieve(int index) {
-        if (index == -1 || index >= items.length)
-            return Optional.empty();
-        return Optional.ofNullable(items[index]);
+        return Optional.ofNullable(get(index));
     }
 
     /**
      * Gets the item at {@code index}.
      */
     public final Item get(int index) {
-        return retrieve(index).orElse(null);
+        return occupied(index) ? view(index) : null;
+    }
+
+    /**
+     * Returns the identifier at {@code index}, or {@code 0} if it's free.
+     */
+    public final int getId(int index) {
+        return occupied(index) ? ids[index] : 0;
+    }
+
+    /**
+     * Returns the amount at {@code index}, or {@code 0} if it's free.
+     */
+    public final int getAmount(int index) {
+        return occupied(index) ? amounts[index] : 0;
     }
 
     /**
      * Determines if {@code index} is occupied.
      */
     public final boolean occupied(int index) {
-        return retrieve(index).isPresent();
+        return index >= 0 && index < capacity && amounts[index] > 0;
     }
 
     /**
@@ -792,15 +1174,12 @@ public class ItemContainer implements Iterable<Item> {
         bulkOperation = true;
         try {
             for (int index = 0; index < capacity; index++) {
-                Item old = items[index];
-                items[index] = null;
-
-                fireUpdateEvent(old, null, index);
-                size--;
+                if (amounts[index] > 0) {
+                    update(index, 0, 0, null);
+                }
             }
         } finally {
             bulkOperation = false;
-
         }
         fireUpdateCompletedEvent();
     }
@@ -819,14 +1198,64 @@ public class ItemContainer implements Iterable<Item> {
         return listeners.remove(listener);
     }
 
+    /**
+     * Adds a listener that receives identifiers and amounts. Returns {@code true} if successful.
+     */
+    public final boolean addListener(PrimitiveItemContainerListener listener) {
+        return primitiveListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener that receives identifiers and amounts. Returns {@code true} if successful.
+     */
+    public final boolean removeListener(PrimitiveItemContainerListener listener) {
+        return primitiveListeners.remove(listener);
+    }
+
+    /**
+     * Fires an update or single update event for {@code index}, which held {@code oldAmount} of {@code oldId}.
+     * {@code oldItem} is the view of the old item, and is only needed if there are listeners receiving items.
+     */
+    private void fireUpdateEvent(int index, int oldId, int oldAmount, Item oldItem) {
+        firePrimitiveUpdateEvent(index, oldId, oldAmount, ids[index], amounts[index]);
+        if (!listeners.isEmpty()) {
+            fireItemUpdateEvent(oldItem, view(index), index);
+        }
+    }
+
     /**
      * Fires an update or single update event.
      */
     public final void fireUpdateEvent(Item oldItem, Item newItem, int index) {
+        firePrimitiveUpdateEvent(index, oldItem == null ? 0 : oldItem.getId(),
+            oldItem == null ? 0 : oldItem.getAmount(), newItem == null ? 0 : newItem.getId(),
+            newItem == null ? 0 : newItem.getAmount());
+        fireItemUpdateEvent(oldItem, newItem, index);
+    }
+
+    /**
+     * Fires an update or single update event to the listeners receiving identifiers and amounts.
+     */
+    private void firePrimitiveUpdateEvent(int index, int oldId, int oldAmount, int newId, int newAmount) {
+        if (firingEvents && !inTransaction) {
+            for (PrimitiveItemContainerListener listener : primitiveListeners) {
+                if (bulkOperation) {
+                    listener.onBulkUpdate(this, index, oldId, oldAmount, newId, newAmount);
+                } else {
+                    listener.onSingleUpdate(this, index, oldId, oldAmount, newId, newAmount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fires an update or single update event to the listeners receiving items.
+     */
+    private void fireItemUpdateEvent(Item oldItem, Item newItem, int index) {
         Optional<Item> oldOptional = Optional.ofNullable(oldItem);
         Optional<Item> newOptional = Optional.ofNullable(newItem);
 
-        if (firingEvents) {
+        if (firingEvents && !inTransaction) {
             for (ItemContainerListener listener : listeners) {
                 if (bulkOperation) {
                     listener.onBulkUpdate(this, oldOptional, newOptional, index);
@@ -837,11 +1266,19 @@ public class ItemContainer implements Iterable<Item> {
         }
     }
 
+    /**
+     * Determines if update events will be sent to any listeners.
+     */
+    private boolean isFiring() {
+        return firingEvents && !inTransaction && (!listeners.isEmpty() || !primitiveListeners.isEmpty());
+    }
+
     /**
      * Fires a bulk update completed event.
      */
     public final void fireUpdateCompletedEvent() {
-        if (firingEvents) {
+        if (firingEvents && !inTransaction) {
+            primitiveListeners.forEach(listener -> listener.onBulkUpdateCompleted(this));
             listeners.forEach(listener -> listener.onBulkUpdateCompleted(this));
         }
     }
@@ -850,7 +1287,7 @@ public class ItemContainer implements Iterable<Item> {
      * Fires a capacity exceeded event.
      */
     public final void fireCapacityExceededEvent() {
-        if (firingEvents) {
+        if (firingEvents && !inTransaction) {
             listeners.forEach(listener -> listener.onCapacityExceeded(this));
         }
     }
@@ -1,9 +1,13 @@
 package io.luna.game.model.item;
 
 import io.luna.game.model.mob.Player;
+import io.luna.net.msg.MessageWriter;
 import io.luna.net.msg.out.GameChatboxMessageWriter;
+import io.luna.net.msg.out.WidgetIndexedItemGroupMessageWriter;
+import io.luna.net.msg.out.WidgetItemGroupMessageWriter;
 import io.luna.net.msg.out.WidgetItemMessageWriter;
 
+import java.util.BitSet;
 import java.util.Optional;
 
 /**
@@ -13,13 +17,26 @@ import java.util.Optional;
  */
 public abstract class ItemContainerAdapter implements ItemContainerListener {
 
-    // TODO Don't send an entire container update even on a bulk operation.
+    /**
+     * The size of the fixed fields of a group item widget update.
+     */
+    private static final int GROUP_HEADER_SIZE = 4;
+
+    /**
+     * The size of the fixed fields of an indexed item widget update.
+     */
+    private static final int INDEXED_HEADER_SIZE = 2;
 
     /**
      * The player.
      */
     private final Player player;
 
+    /**
+     * The indexes updated during the current bulk operation.
+     */
+    private final BitSet dirty = new BitSet();
+
     /**
      * Creates a new {@link ItemContainerAdapter}.
      *
@@ -38,18 +55,32 @@ public abstract class ItemContainerAdapter implements ItemContainerListener {
     }
 
     /**
-     * This implementation does nothing.
+     * Marks {@code index} as updated.
      */
     @Override
     public void onBulkUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem, int index) {
+        dirty.set(index);
     }
 
     /**
-     * Will send a group item widget update.
+     * Will send either an indexed or a group item widget update for the updated indexes, whichever is smaller.
      */
     @Override
     public void onBulkUpdateCompleted(ItemContainer items) {
-        sendItemGroup(items);
+        if (dirty.isEmpty()) {
+            return;
+        }
+        try {
+            int indexedSize = computeIndexedSize(items);
+            int minGroupSize = GROUP_HEADER_SIZE + items.getCapacity() * WidgetItemGroupMessageWriter.sizeOf(0);
+            if (indexedSize < minGroupSize || indexedSize < computeGroupSize(items)) {
+                sendIndexedItems(items);
+            } else {
+                sendItemGroup(items);
+            }
+        } finally {
+            dirty.clear();
+        }
     }
 
     /**
@@ -57,21 +88,69 @@ public abstract class ItemContainerAdapter implements ItemContainerListener {
      */
     @Override
     public void onCapacityExceeded(ItemContainer items) {
-        player.queue(new GameChatboxMessageWriter(getCapacityExceededMsg()));
+        queue(new GameChatboxMessageWriter(getCapacityExceededMsg()));
     }
 
     /**
      * Displays a group of items on widget {@code getWidgetId()}.
      */
     protected void sendItemGroup(ItemContainer container) {
-        player.queue(container.constructRefresh(getWidgetId()));
+        queue(container.constructRefresh(getWidgetId()));
+    }
+
+    /**
+     * Displays the items on every updated index on widget {@code getWidgetId()}.
+     */
+    protected void sendIndexedItems(ItemContainer container) {
+        int count = dirty.cardinality();
+        int[] indexes = new int[count];
+        int[] ids = new int[count];
+        int[] amounts = new int[count];
+
+        int slot = 0;
+        for (int index = dirty.nextSetBit(0); index != -1; index = dirty.nextSetBit(index + 1)) {
+            indexes[slot] = index;
+            ids[slot] = container.getId(index);
+            amounts[slot] = container.getAmount(index);
+            slot++;
+        }
+        queue(new WidgetIndexedItemGroupMessageWriter(getWidgetId(), indexes, ids, amounts));
+    }
+
+    /**
+     * Returns the size of an indexed item widget update for every updated index.
+     */
+    private int computeIndexedSize(ItemContainer container) {
+        int size = INDEXED_HEADER_SIZE;
+        for (int index = dirty.nextSetBit(0); index != -1; index = dirty.nextSetBit(index + 1)) {
+            size += WidgetIndexedItemGroupMessageWriter.sizeOf(index, container.getAmount(index));
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of a group item widget update for the entire container.
+     */
+    private int computeGroupSize(ItemContainer container) {
+        int size = GROUP_HEADER_SIZE;
+        for (int index = 0; index < container.getCapacity(); index++) {
+            size += WidgetItemGroupMessageWriter.sizeOf(container.getAmount(index));
+        }
+        return size;
     }
 
     /**
      * Displays a single item on widget {@code getWidgetId()} at {@code index}.
      */
     protected void sendItem(Item item, int index) {
-        player.queue(new WidgetItemMessageWriter(getWidgetId(), index, item));
+        queue(new WidgetItemMessageWriter(getWidgetId(), index, item));
+    }
+
+    /**
+     * Queues {@code msg} to be sent to the player.
+     */
+    protected void queue(MessageWriter msg) {
+        player.queue(msg);
     }
 
     /**
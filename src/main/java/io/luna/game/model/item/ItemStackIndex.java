@@ -0,0 +1,114 @@
+package io.luna.game.model.item;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash table mapping the identifiers of stacking items to the index they're stacked on, so
+ * that stacking never has to scan a container. Item identifiers are always above {@code 0}, which marks an empty
+ * entry.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+final class ItemStackIndex {
+
+    /**
+     * The item identifiers.
+     */
+    private final int[] keys;
+
+    /**
+     * The indexes, parallel to the identifiers.
+     */
+    private final int[] values;
+
+    /**
+     * The mask used to wrap table positions.
+     */
+    private final int mask;
+
+    /**
+     * Creates a new {@link ItemStackIndex}.
+     *
+     * @param capacity The capacity of the container being indexed.
+     */
+    ItemStackIndex(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(capacity * 2 - 1, 1)) << 1; /* Always at most half full. */
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    /**
+     * Returns the index that {@code id} is stacked on, or {@code -1} if it isn't present.
+     */
+    int get(int id) {
+        for (int position = position(id); ; position = (position + 1) & mask) {
+            int key = keys[position];
+            if (key == id) {
+                return values[position];
+            } else if (key == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Maps {@code id} to {@code index}.
+     */
+    void put(int id, int index) {
+        int position = position(id);
+        while (keys[position] != 0 && keys[position] != id) {
+            position = (position + 1) & mask;
+        }
+        keys[position] = id;
+        values[position] = index;
+    }
+
+    /**
+     * Removes the mapping for {@code id}, shifting back any entries that probed past it.
+     */
+    void remove(int id) {
+        int position = position(id);
+        while (keys[position] != id) {
+            if (keys[position] == 0) {
+                return;
+            }
+            position = (position + 1) & mask;
+        }
+
+        int last = position;
+        for (; ; ) {
+            position = (position + 1) & mask;
+            int key = keys[position];
+            if (key == 0) {
+                break;
+            }
+
+            /* Entries whose natural position is cyclically within (last, position] stay where they are. */
+            int natural = position(key);
+            boolean stays = last <= position ? last < natural && natural <= position :
+                last < natural || natural <= position;
+            if (!stays) {
+                keys[last] = key;
+                values[last] = values[position];
+                last = position;
+            }
+        }
+        keys[last] = 0;
+    }
+
+    /**
+     * Removes every mapping.
+     */
+    void clear() {
+        Arrays.fill(keys, 0);
+    }
+
+    /**
+     * Returns the natural table position of {@code id}.
+     */
+    private int position(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
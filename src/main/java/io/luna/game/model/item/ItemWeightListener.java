@@ -3,17 +3,12 @@ package io.luna.game.model.item;
 import io.luna.game.model.def.ItemDefinition;
 import io.luna.game.model.mob.Player;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Optional;
-
 /**
  * A listener that will update a player's weight.
  *
  * @author lare96 <http://github.org/lare96>
  */
-public final class ItemWeightListener implements ItemContainerListener {
+public final class ItemWeightListener implements PrimitiveItemContainerListener {
 
     /**
      * The player.
@@ -21,9 +16,9 @@ public final class ItemWeightListener implements ItemContainerListener {
     private final Player player;
 
     /**
-     * A list of weight changes.
+     * The weight change accumulated during the current bulk operation.
      */
-    private final List<Double> weightChanges = new ArrayList<>();
+    private double bulkChange;
 
     /**
      * Creates a new {@link ItemWeightListener}.
@@ -35,49 +30,37 @@ public final class ItemWeightListener implements ItemContainerListener {
     }
 
     @Override
-    public void onSingleUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem, int index) {
-        updateWeight(oldItem, newItem);
+    public void onSingleUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId, int newAmount) {
+        double change = computeWeightDifference(oldId, oldAmount, newId, newAmount);
+        if (change != 0.0) {
+            player.setWeight(player.getWeight() + change);
+        }
     }
 
     @Override
-    public void onBulkUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem, int index) {
-        weightChanges.add(computeWeightDifference(oldItem, newItem));
+    public void onBulkUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId, int newAmount) {
+        bulkChange += computeWeightDifference(oldId, oldAmount, newId, newAmount);
     }
 
     @Override
     public void onBulkUpdateCompleted(ItemContainer items) {
-        Iterator<Double> iterator = weightChanges.iterator();
-        double currentWeight = player.getWeight();
-
-        while (iterator.hasNext()) {
-            currentWeight += iterator.next();
-            iterator.remove();
+        if (bulkChange != 0.0) {
+            player.setWeight(player.getWeight() + bulkChange);
+            bulkChange = 0.0;
         }
-        player.setWeight(currentWeight);
-    }
-
-    /**
-     * Updates the weight for a single item set.
-     */
-    private void updateWeight(Optional<Item> oldItem, Optional<Item> newItem) {
-        player.setWeight(player.getWeight() + computeWeightDifference(oldItem, newItem));
     }
 
     /**
      * Computes the weight difference for a single item set.
      */
-    private double computeWeightDifference(Optional<Item> oldItem, Optional<Item> newItem) {
-        double subtract = computeWeight(oldItem);
-        double add = computeWeight(newItem);
-        return add - subtract;
+    private double computeWeightDifference(int oldId, int oldAmount, int newId, int newAmount) {
+        return computeWeight(newId, newAmount) - computeWeight(oldId, oldAmount);
     }
 
     /**
-     * Computes the weight of {@code item}.
+     * Computes the weight of {@code amount} of {@code id}, where an amount of {@code 0} weighs nothing.
      */
-    private double computeWeight(Optional<Item> item) {
-        return item.map(Item::getItemDef).
-            map(ItemDefinition::getWeight).
-            orElse(0.0);
+    private double computeWeight(int id, int amount) {
+        return amount > 0 ? ItemDefinition.computeWeightForId(id) : 0.0;
     }
 }
@@ -0,0 +1,29 @@
+package io.luna.game.model.item;
+
+/**
+ * A model representing a listener within an item container that receives updates as identifiers and amounts,
+ * where an amount of {@code 0} marks an empty index. No {@link Item}s are created to notify these listeners.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public interface PrimitiveItemContainerListener {
+
+    /**
+     * Invoked after an item on one index is updated.
+     */
+    default void onSingleUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId,
+                                int newAmount) {
+    }
+
+    /**
+     * Invoked after an item on one index is updated during a bulk operation.
+     */
+    default void onBulkUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId, int newAmount) {
+    }
+
+    /**
+     * Invoked after a series of bulk update invocations.
+     */
+    default void onBulkUpdateCompleted(ItemContainer items) {
+    }
+}
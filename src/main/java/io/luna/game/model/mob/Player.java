@@ -4,7 +4,10 @@ import com.google.common.base.MoreObjects;
 import io.luna.LunaConstants;
 import io.luna.LunaContext;
 import io.luna.game.event.impl.LoginEvent;
+import io.luna.game.event.impl.LoginSnapshotEvent;
 import io.luna.game.event.impl.LogoutEvent;
+import io.luna.game.event.impl.LogoutSnapshotEvent;
+import io.luna.game.event.impl.ResumeEvent;
 import io.luna.game.model.Direction;
 import io.luna.game.model.EntityType;
 import io.luna.game.model.Position;
@@ -28,6 +31,7 @@ import io.netty.channel.Channel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDate;
 import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Optional;
@@ -161,9 +165,19 @@ public final class Player extends Mob {
     private PlayerRights rights = PlayerRights.PLAYER;
 
     /**
-     * The game session.
+     * The game session. Volatile because a disposed session checks that it's still current from a network thread.
      */
-    private GameSession session;
+    private volatile GameSession session;
+
+    /**
+     * If a logout was requested, in which case the player won't linger once disconnected.
+     */
+    private volatile boolean logoutRequested;
+
+    /**
+     * The amount of ticks this player has lingered for since being disconnected. Only accessed by the game thread.
+     */
+    private int lingerCycles;
 
     /**
      * The last known region.
@@ -256,6 +270,51 @@ public final class Player extends Mob {
 
     @Override
     public void onActive() {
+        sendClientState();
+
+        queue(new GameChatboxMessageWriter("Welcome to Luna!"));
+
+        plugins.post(new LoginEvent(this));
+        plugins.post(new LoginSnapshotEvent(this));
+
+        LOGGER.info("{} has logged in.", this);
+    }
+
+    @Override
+    public void onInactive() {
+        plugins.post(new LogoutEvent(this));
+        plugins.post(new LogoutSnapshotEvent(this));
+        session.flush(); /* Write or release anything queued since the last cycle. */
+
+        context.getPersistence().logout(this);
+
+        LOGGER.info("{} has logged out.", this);
+    }
+
+    /**
+     * Rebinds this lingering player to the session of a reconnecting client, and resynchronizes the state that the
+     * client lost. Must be called on the game thread.
+     */
+    public void resume(GameSession newSession) {
+        checkState(!session.getChannel().isActive(), "current session is still active");
+
+        session = newSession;
+        lingerCycles = 0;
+
+        localPlayers.clear();
+        localNpcs.clear();
+        lastRegion = null;
+        sendClientState();
+
+        plugins.post(new ResumeEvent(this));
+
+        LOGGER.info("{} has resumed their session.", this);
+    }
+
+    /**
+     * Sends all of the state that a freshly connected client needs.
+     */
+    private void sendClientState() {
         updateFlags.flag(UpdateFlag.APPEARANCE);
 
         queue(new AssignmentMessageWriter(true));
@@ -273,22 +332,6 @@ public final class Player extends Mob {
         queue(inventory.constructRefresh(INVENTORY_DISPLAY_ID));
         queue(equipment.constructRefresh(EQUIPMENT_DISPLAY_ID));
         queue(bank.constructRefresh(BANK_DISPLAY_ID));
-
-        queue(new GameChatboxMessageWriter("Welcome to Luna!"));
-
-        plugins.post(new LoginEvent(this));
-
-        LOGGER.info("{} has logged in.", this);
-    }
-
-    @Override
-    public void onInactive() {
-        plugins.post(new LogoutEvent(this));
-
-        PlayerSerializer serializer = new PlayerSerializer(this);
-        serializer.asyncSave(service);
-
-        LOGGER.info("{} has logged out.", this);
     }
 
     @Override
@@ -326,6 +369,8 @@ public final class Player extends Mob {
      * Disconnects this player.
      */
     public void logout() {
+        logoutRequested = true;
+
         Channel channel = session.getChannel();
         if (channel.isActive()) {
             queue(new LogoutMessageWriter());
@@ -487,6 +532,34 @@ public final class Player extends Mob {
         return !getUnbanDate().equals("n/a");
     }
 
+    /**
+     * Returns {@code true} if this player is banned and their ban hasn't been lifted yet. Doesn't modify any
+     * state, so it can be called from any thread.
+     */
+    public boolean isBanActive() {
+        return isBanned() && LocalDate.now().isBefore(computePunishmentDate(getUnbanDate()));
+    }
+
+    /**
+     * Clears the 'unban_date' and 'unmute_date' attributes if their punishments have been lifted.
+     */
+    public void clearLiftedPunishments() {
+        LocalDate now = LocalDate.now();
+        if (isBanned() && !now.isBefore(computePunishmentDate(getUnbanDate()))) {
+            setUnbanDate("n/a");
+        }
+        if (isMuted() && computePunishmentDate(getUnmuteDate()).isBefore(now)) {
+            setUnmuteDate("n/a");
+        }
+    }
+
+    /**
+     * Returns the date a punishment is lifted on, where permanent punishments are always a year away.
+     */
+    private LocalDate computePunishmentDate(String date) {
+        return date.equals("never") ? LocalDate.now().plusYears(1) : LocalDate.parse(date);
+    }
+
     /**
      * @return The rights.
      */
@@ -529,6 +602,20 @@ public final class Player extends Mob {
         return session;
     }
 
+    /**
+     * @return {@code true} if a logout was requested.
+     */
+    public boolean isLogoutRequested() {
+        return logoutRequested;
+    }
+
+    /**
+     * Increments and returns the amount of ticks this player has lingered for.
+     */
+    public int incrementLingerCycles() {
+        return ++lingerCycles;
+    }
+
     /**
      * Sets the game session.
      */
@@ -1,31 +1,28 @@
 package io.luna.game.model.mob;
 
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import io.luna.game.GameService;
-import io.luna.game.model.Position;
-import io.luna.game.model.item.IndexedItem;
-import io.luna.game.model.mob.attr.AttributeKey;
-import io.luna.game.model.mob.attr.AttributeValue;
+import io.luna.game.model.mob.persistence.PersistenceService;
+import io.luna.game.model.mob.persistence.PlayerData;
+import io.luna.game.model.mob.persistence.PlayerDataJson;
+import io.luna.game.model.mob.persistence.PlayerStorage;
+import io.luna.game.model.mob.persistence.SaveFiles;
 import io.luna.net.codec.login.LoginResponse;
 import io.luna.util.GsonUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileReader;
+import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Map.Entry;
-
-import static io.luna.util.GsonUtils.getAsType;
-import static io.luna.util.GsonUtils.toJsonTree;
+import java.util.Optional;
 
 /**
- * A model containing functions that allow for synchronous and asynchronous player serialization.
+ * A model containing functions that allow for synchronous player deserialization. Saves are read from the
+ * configured {@link PlayerStorage}, and legacy {@code JSON} saves are migrated transparently the first time they're
+ * loaded. Saves are only ever written through {@link PersistenceService#save(Player)}, so that they can't be
+ * overwritten by an older pending snapshot.
  *
  * @author lare96 <http://github.org/lare96>
  */
@@ -36,20 +33,15 @@ public final class PlayerSerializer {
      */
     private static final Logger LOGGER = LogManager.getLogger();
 
-    /**
-     * The path to serialized player files.
-     */
-    private static final Path FILE_DIR = Paths.get("./data/saved_players");
-
     /**
      * The player being serialized.
      */
     private final Player player;
 
     /**
-     * The path to the serialized file.
+     * The path to the legacy {@code JSON} serialized file.
      */
-    private final Path path;
+    private final Path legacyPath;
 
     /**
      * Creates a new {@link PlayerSerializer}.
@@ -58,122 +50,65 @@ public final class PlayerSerializer {
      */
     public PlayerSerializer(Player player) {
         this.player = player;
-        path = FILE_DIR.resolve(player.getUsername() + ".json");
-    }
-
-    static { /* Initialize serialization directory. */
-        try {
-            if (Files.notExists(FILE_DIR)) {
-                Files.createDirectory(FILE_DIR);
-            }
-        } catch (Exception e) {
-            throw new ExceptionInInitializerError(e);
-        }
+        legacyPath = SaveFiles.getDirectory().resolve(player.getUsername() + ".json");
     }
 
     /**
-     * Serializes all persistent data.
+     * Deserializes all persistent data and verifies the password.
      */
-    public void save() {
-
-        /* Cache all main token tables. */
-        JsonObject tokens = new JsonObject();
-        tokens.addProperty("password", player.getPassword());
-        tokens.add("position", toJsonTree(player.getPosition()));
-        tokens.addProperty("rights", player.getRights().name());
-        tokens.addProperty("running", player.getWalkingQueue().isRunning());
-        tokens.add("appearance", toJsonTree(player.getAppearance().toArray()));
-        tokens.add("inventory", toJsonTree(player.getInventory().toIndexedArray()));
-        tokens.add("bank", toJsonTree(player.getBank().toIndexedArray()));
-        tokens.add("equipment", toJsonTree(player.getEquipment().toIndexedArray()));
-        tokens.add("skills", toJsonTree(player.getSkills().toArray()));
-
-        /* Cache all attribute tokens. */
-        JsonObject attributeTokens = new JsonObject();
-        for (Entry<String, AttributeValue<?>> it : player.getAttributes()) {
-            AttributeKey<?> key = AttributeKey.ALIASES.get(it.getKey());
-            AttributeValue<?> value = it.getValue();
-
-            if (key.isPersistent()) {
-                JsonObject attributeElementTokens = new JsonObject();
-                attributeElementTokens.addProperty("type", key.getTypeName());
-                attributeElementTokens.add("value", toJsonTree(value.get()));
-
-                attributeTokens.add(key.getName(), attributeElementTokens);
+    public LoginResponse load(String expectedPassword) {
+        try {
+            PlayerData data;
+            Optional<PlayerData> recent = player.getContext().getPersistence().getRecent(player.getUsername());
+            Optional<PlayerData> stored = recent.isPresent() ? recent : getStorage().load(player.getUsername());
+            if (stored.isPresent()) {
+                data = stored.get();
+            } else if (Files.exists(legacyPath)) {
+                data = loadLegacy();
+                LOGGER.info("Migrating legacy save for {}.", player);
+            } else {
+                return LoginResponse.NORMAL;
             }
-        }
 
-        /* Serialize all tokens. */
-        tokens.add("attributes", attributeTokens);
-        try {
-            GsonUtils.writeJson(tokens, path.toFile());
+            if (!expectedPassword.equals(data.getPassword())) {
+                return LoginResponse.INVALID_CREDENTIALS;
+            }
+            data.applyTo(player);
         } catch (Exception e) {
             LOGGER.catching(e);
+            return LoginResponse.COULD_NOT_COMPLETE_LOGIN;
         }
+        return LoginResponse.NORMAL;
     }
 
     /**
-     * Asynchronously serializes all persistent data.
+     * Exports the stored save in the legacy {@code JSON} layout for debugging, returning the path it was written
+     * to.
      */
-    public ListenableFuture<Void> asyncSave(GameService service) {
-        return service.submit(() -> {
-            save();
-            return null;
-        });
+    public Path exportJson() throws IOException {
+        String username = player.getUsername();
+        PlayerData data = getStorage().load(username).orElseThrow(() -> new IOException("no save for " + username));
+
+        Path exportPath = SaveFiles.getDirectory().resolve(player.getUsername() + ".export.json");
+        GsonUtils.writeJson(PlayerDataJson.toJson(data), exportPath.toFile());
+        return exportPath;
     }
 
     /**
-     * Deserializes all persistent data and verifies the password.
+     * Reads a legacy {@code JSON} save.
      */
-    public LoginResponse load(String expectedPassword) {
-        if (!Files.exists(path)) {
-            return LoginResponse.NORMAL;
+    private PlayerData loadLegacy() throws IOException, ReflectiveOperationException {
+        try (Reader reader = Files.newBufferedReader(legacyPath)) {
+            JsonObject jsonReader = new JsonParser().parse(reader).getAsJsonObject();
+            return PlayerDataJson.fromJson(jsonReader, player.getInventory().getCapacity(),
+                player.getBank().getCapacity(), player.getEquipment().getCapacity());
         }
+    }
 
-        try (Reader reader = new FileReader(path.toFile())) {
-            JsonObject jsonReader = (JsonObject) new JsonParser().parse(reader);
-
-            String password = jsonReader.get("password").getAsString();
-            if (!expectedPassword.equals(password)) {
-                return LoginResponse.INVALID_CREDENTIALS;
-            }
-
-            Position position = getAsType(jsonReader.get("position"), Position.class);
-            player.setPosition(position);
-
-            PlayerRights rights = PlayerRights.valueOf(jsonReader.get("rights").getAsString());
-            player.setRights(rights);
-
-            boolean running = jsonReader.get("running").getAsBoolean();
-            player.getWalkingQueue().setRunning(running);
-
-            int[] appearance = getAsType(jsonReader.get("appearance"), int[].class);
-            player.getAppearance().setValues(appearance);
-
-            IndexedItem[] inventory = getAsType(jsonReader.get("inventory"), IndexedItem[].class);
-            player.getInventory().setItems(inventory);
-
-            IndexedItem[] bank = getAsType(jsonReader.get("bank"), IndexedItem[].class);
-            player.getBank().setItems(bank);
-
-            IndexedItem[] equipment = getAsType(jsonReader.get("equipment"), IndexedItem[].class);
-            player.getEquipment().setItems(equipment);
-
-            Skill[] skills = getAsType(jsonReader.get("skills"), Skill[].class);
-            player.getSkills().setSkills(skills);
-
-            JsonObject attr = jsonReader.get("attributes").getAsJsonObject();
-            for (Entry<String, JsonElement> it : attr.entrySet()) {
-                JsonObject attrReader = it.getValue().getAsJsonObject();
-
-                Class<?> type = Class.forName(attrReader.get("type").getAsString());
-                Object data = getAsType(attrReader.get("value"), type);
-                player.getAttributes().get(it.getKey()).set(data);
-            }
-        } catch (Exception e) {
-            LOGGER.catching(e);
-            return LoginResponse.COULD_NOT_COMPLETE_LOGIN;
-        }
-        return LoginResponse.NORMAL;
+    /**
+     * @return The storage backend.
+     */
+    private PlayerStorage getStorage() {
+        return player.getContext().getPersistence().getStorage();
     }
 }
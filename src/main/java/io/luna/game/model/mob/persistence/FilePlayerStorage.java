@@ -0,0 +1,90 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.util.concurrent.Striped;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A {@link PlayerStorage} that keeps one binary save file per username, written through {@link SaveFiles}.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class FilePlayerStorage implements PlayerStorage {
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Locks guarding the save files of each username, so different players can be saved in parallel.
+     */
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    @Override
+    public Optional<PlayerData> load(String username) throws IOException {
+        Path path = SaveFiles.getPath(username);
+        Path backupPath = SaveFiles.getBackupPath(username);
+        if (Files.notExists(path) && Files.notExists(backupPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(read(path));
+        } catch (IOException e) {
+            LOGGER.warn("Save for {} is unreadable ({}), loading the previous generation.", username, e.toString());
+            return Optional.of(read(backupPath));
+        }
+    }
+
+    @Override
+    public void save(String username, PlayerData data) throws IOException {
+        Lock lock = locks.get(username);
+        lock.lock();
+        try {
+            SaveFiles.writeTemp(username, data);
+            SaveFiles.commit(username);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sync() {
+        SaveFiles.forceDirectory();
+    }
+
+    @Override
+    public Set<String> getUsernames() throws IOException {
+        Set<String> usernames = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(SaveFiles.getDirectory(), "*.dat")) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                usernames.add(fileName.substring(0, fileName.length() - 4));
+            }
+        }
+        return usernames;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Reads the save at {@code path}.
+     */
+    private PlayerData read(Path path) throws IOException {
+        try (PlayerDataReader reader = new PlayerDataReader(Files.newInputStream(path))) {
+            return reader.readData();
+        }
+    }
+}
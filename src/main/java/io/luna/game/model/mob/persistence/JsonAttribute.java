@@ -0,0 +1,87 @@
+package io.luna.game.model.mob.persistence;
+
+import io.luna.util.GsonUtils;
+
+import java.util.Objects;
+
+/**
+ * A model representing a persistent attribute value that isn't a primitive or a string, encoded as its class name
+ * and {@code JSON} representation. Values are encoded when a snapshot is taken, so the snapshot never shares a
+ * mutable value with its player and compares equal to another snapshot only if their contents are equal.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class JsonAttribute {
+
+    /**
+     * Returns {@code value} if it's a primitive or a string, or its encoded form otherwise.
+     */
+    public static Object of(Object value) {
+        if (value instanceof Boolean || value instanceof Integer || value instanceof Long ||
+            value instanceof Double || value instanceof String || value instanceof JsonAttribute) {
+            return value;
+        }
+        return new JsonAttribute(value.getClass().getName(), GsonUtils.GSON.toJson(value));
+    }
+
+    /**
+     * The class name of the value.
+     */
+    private final String type;
+
+    /**
+     * The {@code JSON} representation of the value.
+     */
+    private final String json;
+
+    /**
+     * Creates a new {@link JsonAttribute}.
+     *
+     * @param type The class name of the value.
+     * @param json The {@code JSON} representation of the value.
+     */
+    public JsonAttribute(String type, String json) {
+        this.type = type;
+        this.json = json;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, json);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof JsonAttribute) {
+            JsonAttribute other = (JsonAttribute) obj;
+            return type.equals(other.type) && json.equals(other.json);
+        }
+        return false;
+    }
+
+    /**
+     * Decodes a new copy of the value.
+     *
+     * @throws ClassNotFoundException If the class of the value doesn't exist.
+     */
+    public Object decode() throws ClassNotFoundException {
+        return GsonUtils.GSON.fromJson(json, Class.forName(type));
+    }
+
+    /**
+     * @return The class name of the value.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return The {@code JSON} representation of the value.
+     */
+    public String getJson() {
+        return json;
+    }
+}
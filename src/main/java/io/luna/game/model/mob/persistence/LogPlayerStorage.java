@@ -0,0 +1,478 @@
+package io.luna.game.model.mob.persistence;
+
+import io.luna.util.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A {@link PlayerStorage} that appends saves to segmented log files, and keeps an in-memory index from username
+ * hash to the location of each player's latest save. Every save is a sequential append, and the index is rebuilt
+ * by scanning the segments on startup. Each record is laid out as
+ * <pre>
+ * int   magic
+ * int   length
+ * int   CRC32
+ * utf   username
+ * bytes binary save
+ * </pre>
+ * where the length and checksum cover everything after the checksum. A torn record at the end of the newest
+ * segment is truncated on startup.
+ * <p>
+ * Sealed segments where less than half of the bytes belong to latest saves are compacted in the background, by
+ * appending their live records to the active segment and deleting them.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class LogPlayerStorage implements PlayerStorage {
+
+    /**
+     * A model representing the location of a record.
+     */
+    private static final class Location {
+
+        /**
+         * The segment identifier.
+         */
+        private final int segment;
+
+        /**
+         * The offset within the segment.
+         */
+        private final long offset;
+
+        /**
+         * The record length, including the header.
+         */
+        private final int length;
+
+        /**
+         * The username.
+         */
+        private final String username;
+
+        /**
+         * Creates a new {@link Location}.
+         *
+         * @param segment The segment identifier.
+         * @param offset The offset within the segment.
+         * @param length The record length, including the header.
+         * @param username The username.
+         */
+        private Location(int segment, long offset, int length, String username) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.username = username;
+        }
+    }
+
+    /**
+     * A model representing a single log file.
+     */
+    private static final class Segment {
+
+        /**
+         * The segment identifier.
+         */
+        private final int id;
+
+        /**
+         * The path.
+         */
+        private final Path path;
+
+        /**
+         * The channel, used for positional reads and appends.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The size in bytes.
+         */
+        private long size;
+
+        /**
+         * The amount of bytes belonging to latest saves.
+         */
+        private long liveBytes;
+
+        /**
+         * Creates a new {@link Segment}.
+         *
+         * @param id The segment identifier.
+         * @param path The path.
+         */
+        private Segment(int id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            size = channel.size();
+        }
+    }
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The magic value identifying records.
+     */
+    private static final int RECORD_MAGIC = 0x4C4F4752;
+
+    /**
+     * The size of a record header.
+     */
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * The default size after which the active segment is sealed.
+     */
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * The live byte ratio below which sealed segments are compacted.
+     */
+    private static final double COMPACTION_THRESHOLD = 0.5;
+
+    /**
+     * The directory holding the segments.
+     */
+    private final Path directory;
+
+    /**
+     * The size after which the active segment is sealed.
+     */
+    private final long segmentSize;
+
+    /**
+     * The index of latest saves, by username hash.
+     */
+    private final Map<Long, Location> index = new ConcurrentHashMap<>();
+
+    /**
+     * The segments, by identifier.
+     */
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    /**
+     * A lock guarding {@code segments}. Loads hold the read lock so segments aren't deleted from under them.
+     */
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    /**
+     * The segment being appended to.
+     */
+    private Segment active;
+
+    /**
+     * Creates a new {@link LogPlayerStorage}, rebuilding the index from the segments in {@code directory}.
+     *
+     * @param directory The directory holding the segments.
+     */
+    public LogPlayerStorage(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link LogPlayerStorage}, rebuilding the index from the segments in {@code directory}.
+     *
+     * @param directory The directory holding the segments.
+     * @param segmentSize The size after which the active segment is sealed.
+     */
+    LogPlayerStorage(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.log")) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                ids.add(Integer.parseInt(fileName.substring(8, fileName.length() - 4)));
+            }
+        }
+        ids.sort(Integer::compare);
+
+        for (int id : ids) {
+            Segment segment = new Segment(id, segmentPath(id));
+            segments.put(id, segment);
+            scan(segment, id == ids.get(ids.size() - 1));
+        }
+        active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+
+        LOGGER.info("Indexed {} saves across {} log segment(s).", box(index.size()), box(segments.size()));
+    }
+
+    @Override
+    public Optional<PlayerData> load(String username) throws IOException {
+        segmentLock.readLock().lock();
+        try {
+            Location location = index.get(StringUtils.encodeToBase37(username));
+            if (location == null) {
+                return Optional.empty();
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(readRecord(location)));
+            in.readUTF();
+            return Optional.of(new PlayerDataReader(in).readData());
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Encodes the record outside of the lock, so that only appending is serialized when saving in parallel.
+     */
+    @Override
+    public void save(String username, PlayerData data) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        new DataOutputStream(body).writeUTF(username);
+        new PlayerDataWriter(body).write(data);
+
+        byte[] bytes = body.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bytes.length);
+        record.putInt(RECORD_MAGIC).putInt(bytes.length).putInt((int) checksum.getValue()).put(bytes);
+        record.flip();
+        synchronized (this) {
+            append(username, record);
+        }
+    }
+
+    @Override
+    public synchronized void sync() throws IOException {
+        active.channel.force(false);
+    }
+
+    /**
+     * Compacts the sealed segment with the lowest live byte ratio, if it's below {@code COMPACTION_THRESHOLD}.
+     */
+    @Override
+    public synchronized void compact() throws IOException {
+        Segment candidate = null;
+        for (Segment segment : segments.values()) {
+            if (segment != active && segment.liveBytes < segment.size * COMPACTION_THRESHOLD &&
+                (candidate == null || segment.liveBytes * candidate.size < candidate.liveBytes * segment.size)) {
+                candidate = segment;
+            }
+        }
+        if (candidate == null) {
+            return;
+        }
+
+        int moved = 0;
+        for (Location location : index.values()) {
+            if (location.segment == candidate.id) {
+                ByteBuffer record = ByteBuffer.allocate(location.length);
+                readFully(candidate.channel, record, location.offset);
+                record.flip();
+                append(location.username, record);
+                moved++;
+            }
+        }
+        sync();
+
+        segmentLock.writeLock().lock();
+        try {
+            segments.remove(candidate.id);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        candidate.channel.close();
+        Files.delete(candidate.path);
+        SaveFiles.forceDirectory(directory);
+
+        LOGGER.info("Compacted log segment {}, moving {} live save(s).", box(candidate.id), box(moved));
+    }
+
+    @Override
+    public Set<String> getUsernames() {
+        Set<String> usernames = new HashSet<>();
+        for (Location location : index.values()) {
+            usernames.add(location.username);
+        }
+        return usernames;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.channel.force(false);
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+    }
+
+    /**
+     * Appends {@code record} to the active segment and points the index at it, sealing the active segment first
+     * if it's full.
+     */
+    private void append(String username, ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        if (active.size > 0 && active.size + length > segmentSize) {
+            active.channel.force(false);
+            active = newSegment(active.id + 1);
+        }
+
+        long offset = active.size;
+        while (record.hasRemaining()) {
+            active.channel.write(record, offset + record.position());
+        }
+        active.size += length;
+        index(new Location(active.id, offset, length, username));
+    }
+
+    /**
+     * Points the index at {@code location}, updating the live byte counts of the affected segments.
+     */
+    private void index(Location location) {
+        segments.get(location.segment).liveBytes += location.length;
+
+        Location previous = index.put(StringUtils.encodeToBase37(location.username), location);
+        if (previous != null) {
+            Segment segment = segments.get(previous.segment);
+            if (segment != null) {
+                segment.liveBytes -= previous.length;
+            }
+        }
+    }
+
+    /**
+     * Reads and verifies the record at {@code location}, returning everything after the header.
+     */
+    private byte[] readRecord(Location location) throws IOException {
+        Segment segment = segments.get(location.segment);
+        ByteBuffer record = ByteBuffer.allocate(location.length);
+        readFully(segment.channel, record, location.offset);
+        record.flip();
+
+        byte[] bytes = verify(record);
+        if (bytes == null) {
+            throw new IOException("corrupt record in log segment " + segment.id);
+        }
+        return bytes;
+    }
+
+    /**
+     * Rebuilds the index from every record in {@code segment}. Records after the first invalid one are
+     * discarded, and truncated if {@code segment} is the newest segment.
+     */
+    private void scan(Segment segment, boolean newest) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long offset = 0;
+        while (offset + HEADER_SIZE <= segment.size) {
+            header.clear();
+            readFully(segment.channel, header, offset);
+            int magic = header.getInt(0);
+            int length = header.getInt(4);
+            if (magic != RECORD_MAGIC || length < 0 || offset + HEADER_SIZE + length > segment.size) {
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+            readFully(segment.channel, record, offset);
+            record.flip();
+            byte[] bytes = verify(record);
+            if (bytes == null) {
+                break;
+            }
+
+            String username = new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+            index(new Location(segment.id, offset, HEADER_SIZE + length, username));
+            offset += HEADER_SIZE + length;
+        }
+
+        if (offset < segment.size) {
+            LOGGER.warn("Log segment {} has {} invalid trailing byte(s).", box(segment.id),
+                box(segment.size - offset));
+            if (newest) {
+                segment.channel.truncate(offset);
+                segment.size = offset;
+            }
+        }
+    }
+
+    /**
+     * Verifies the header of {@code record}, returning everything after the header or {@code null} if it's
+     * invalid.
+     */
+    private byte[] verify(ByteBuffer record) {
+        if (record.remaining() < HEADER_SIZE || record.getInt() != RECORD_MAGIC) {
+            return null;
+        }
+        int length = record.getInt();
+        int expected = record.getInt();
+        if (length != record.remaining()) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, length);
+        return (int) checksum.getValue() == expected ? bytes : null;
+    }
+
+    /**
+     * Creates and registers a new, empty segment.
+     */
+    private Segment newSegment(int id) throws IOException {
+        Segment segment = new Segment(id, segmentPath(id));
+        segmentLock.writeLock().lock();
+        try {
+            segments.put(id, segment);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        SaveFiles.forceDirectory(directory);
+        return segment;
+    }
+
+    /**
+     * Retrieves the path to the segment with {@code id}.
+     */
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("segment-%06d.log", id));
+    }
+
+    /**
+     * Fills {@code buf} from {@code channel}, starting at {@code position}.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) == -1) {
+                throw new EOFException();
+            }
+        }
+    }
+}
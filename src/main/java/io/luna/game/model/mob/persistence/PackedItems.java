@@ -0,0 +1,111 @@
+package io.luna.game.model.mob.persistence;
+
+import io.luna.game.model.item.ItemContainer;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A model representing the contents of an {@link ItemContainer} as parallel identifier and amount arrays. An
+ * amount of {@code 0} marks an empty index.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PackedItems {
+
+    /**
+     * Packs the contents of {@code container}.
+     */
+    public static PackedItems of(ItemContainer container) {
+        int capacity = container.getCapacity();
+        int[] ids = new int[capacity];
+        int[] amounts = new int[capacity];
+
+        for (int index = 0; index < capacity; index++) {
+            ids[index] = container.getId(index);
+            amounts[index] = container.getAmount(index);
+        }
+        return new PackedItems(ids, amounts);
+    }
+
+    /**
+     * The item identifiers.
+     */
+    private final int[] ids;
+
+    /**
+     * The item amounts.
+     */
+    private final int[] amounts;
+
+    /**
+     * Creates a new {@link PackedItems}.
+     *
+     * @param ids The item identifiers.
+     * @param amounts The item amounts.
+     */
+    public PackedItems(int[] ids, int[] amounts) {
+        checkArgument(ids.length == amounts.length, "ids.length != amounts.length");
+        this.ids = ids;
+        this.amounts = amounts;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ids) + Arrays.hashCode(amounts);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof PackedItems) {
+            PackedItems other = (PackedItems) obj;
+            return Arrays.equals(ids, other.ids) && Arrays.equals(amounts, other.amounts);
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the contents of {@code container} with these items.
+     */
+    public void applyTo(ItemContainer container) {
+        container.setItems(ids, amounts);
+    }
+
+    /**
+     * Computes the amount of occupied indexes.
+     */
+    public int computeSize() {
+        int size = 0;
+        for (int amount : amounts) {
+            if (amount > 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return ids.length;
+    }
+
+    /**
+     * Retrieves the item identifier at {@code index}.
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Retrieves the item amount at {@code index}.
+     */
+    public int getAmount(int index) {
+        return amounts[index];
+    }
+}
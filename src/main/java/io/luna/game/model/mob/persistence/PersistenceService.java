@@ -0,0 +1,381 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.AbstractExecutionThreadService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.luna.LunaConstants;
+import io.luna.game.model.mob.MobList;
+import io.luna.game.model.mob.Player;
+import io.luna.util.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A service that writes player saves to a {@link PlayerStorage} behind the game thread. Snapshots are taken on
+ * the game thread and handed to a single I/O thread, and only the latest snapshot for each player is ever kept,
+ * so a player saved several times before their save is written is only written once. Saves are written in
+ * batches, and each batch is made durable with a single {@code sync()} call. The storage is compacted while the
+ * service is idle.
+ * <p>
+ * Autosaves are spread across {@code LunaConstants.AUTOSAVE_INTERVAL} ticks, so only a small slice of online
+ * players is snapshotted each tick. Players whose state hasn't changed since their last save are skipped.
+ * <p>
+ * The latest {@code LunaConstants.SAVE_CACHE_SIZE} snapshots are cached by username hash, so players that relog
+ * shortly after logging out are loaded without any disk I/O or parsing. Every queued snapshot replaces the cached
+ * one, so the cache is never older than the write-behind queue.
+ * <p>
+ * Snapshots that fail to be written stay pending and are retried with an exponential backoff, so a player's final
+ * save isn't lost just because they logged out while the storage was failing.
+ * <p>
+ * When the service is stopped, the remaining saves are written in parallel and made durable before it terminates,
+ * so shutdown waits on the slowest save instead of the sum of them.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PersistenceService extends AbstractExecutionThreadService {
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The maximum amount of saves written per batch.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The delay before the first retry of a failed save, in nanoseconds.
+     */
+    private static final long RETRY_DELAY = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The maximum delay between retries of a failed save, in nanoseconds.
+     */
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * The latest unwritten snapshot of each player, by username. Snapshots stay here until they're written.
+     */
+    private final Map<String, PlayerData> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The snapshot last queued for each online player, by username. Used to skip unchanged autosaves.
+     */
+    private final Map<String, PlayerData> lastQueued = new ConcurrentHashMap<>();
+
+    /**
+     * A cache of recently queued snapshots, by username hash.
+     */
+    private final Cache<Long, PlayerData> recent = CacheBuilder.newBuilder().
+        maximumSize(LunaConstants.SAVE_CACHE_SIZE).recordStats().build();
+
+    /**
+     * A queue of usernames with pending snapshots. Each username is queued at most once.
+     */
+    private final BlockingQueue<String> dirty = new LinkedBlockingQueue<>();
+
+    /**
+     * The usernames in the current batch. Only accessed by the I/O thread.
+     */
+    private final List<String> batch = new ArrayList<>(BATCH_SIZE);
+
+    /**
+     * The usernames whose saves failed, mapped to when they'll be retried. Only accessed by the I/O thread.
+     */
+    private final Map<String, Long> retryTimes = new LinkedHashMap<>();
+
+    /**
+     * The usernames whose saves failed, mapped to how many times in a row they failed. Only accessed by the I/O
+     * thread.
+     */
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    /**
+     * The amount of snapshots that replaced an unwritten one.
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * The amount of saves written.
+     */
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * The storage backend, selected by {@code LunaConstants.PLAYER_STORAGE}.
+     */
+    private volatile PlayerStorage storage;
+
+    /**
+     * The amount of ticks autosaving has run for. Only accessed by the game thread.
+     */
+    private int cycle;
+
+    @Override
+    protected String serviceName() {
+        return "LunaPersistenceThread";
+    }
+
+    @Override
+    protected void startUp() throws Exception {
+        storage = PlayerStorage.create(LunaConstants.PLAYER_STORAGE);
+    }
+
+    @Override
+    protected void run() throws Exception {
+        while (isRunning()) {
+            requeueRetries();
+
+            String username = dirty.poll(600, TimeUnit.MILLISECONDS);
+            if (username != null) {
+                batch.add(username);
+                dirty.drainTo(batch, BATCH_SIZE - 1);
+                writeBatch();
+            } else {
+                try {
+                    storage.compact();
+                } catch (Exception e) {
+                    LOGGER.catching(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every pending save in parallel, logging progress as it goes, then makes them all durable with one
+     * {@code sync()} call before closing the storage.
+     */
+    @Override
+    protected void shutDown() throws Exception {
+        List<String> remaining = new ArrayList<>(retryTimes.keySet());
+        retryTimes.clear();
+        dirty.drainTo(remaining);
+
+        int total = remaining.size();
+        if (total > 0) {
+            LOGGER.info("Writing {} pending save(s) in parallel...", box(total));
+
+            int threads = Math.min(total, Runtime.getRuntime().availableProcessors());
+            ExecutorService pool = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("LunaShutdownSaveThread-%d").build());
+            int step = Math.max(1, total / 10);
+            AtomicInteger completed = new AtomicInteger();
+            try {
+                for (String username : remaining) {
+                    pool.execute(() -> {
+                        try {
+                            storage.save(username, pending.get(username));
+                            written.incrementAndGet();
+                        } catch (Exception e) {
+                            LOGGER.catching(e);
+                        }
+
+                        int done = completed.incrementAndGet();
+                        if (done % step == 0 || done == total) {
+                            LOGGER.info("Saved {}/{} players.", box(done), box(total));
+                        }
+                    });
+                }
+            } finally {
+                pool.shutdown();
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            }
+        }
+
+        storage.sync();
+        storage.close();
+        LOGGER.info("All pending saves have been written.");
+    }
+
+    /**
+     * Snapshots {@code player} and queues the snapshot to be written. Must be called on the game thread.
+     */
+    public void save(Player player) {
+        PlayerData data = PlayerData.of(player);
+        lastQueued.put(player.getUsername(), data);
+        queue(player.getUsername(), data);
+    }
+
+    /**
+     * Snapshots {@code player} for the last time when they log out. Must be called on the game thread.
+     */
+    public void logout(Player player) {
+        save(player);
+        lastQueued.remove(player.getUsername());
+    }
+
+    /**
+     * Snapshots this tick's slice of {@code players}, skipping players that haven't changed since their last
+     * save. Must be called on the game thread, once per tick.
+     */
+    public void autosave(MobList<Player> players) {
+        int interval = LunaConstants.AUTOSAVE_INTERVAL;
+        if (interval <= 0) {
+            return;
+        }
+
+        for (int index = cycle++ % interval; index < players.capacity(); index += interval) {
+            Player player = players.get(index);
+            if (player == null) {
+                continue;
+            }
+
+            PlayerData data = PlayerData.of(player);
+            if (!data.equals(lastQueued.get(player.getUsername()))) {
+                lastQueued.put(player.getUsername(), data);
+                queue(player.getUsername(), data);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the latest unwritten or recently saved snapshot for {@code username}. Loads must check this
+     * before reading from storage, otherwise a quick relog could load a stale save.
+     */
+    public Optional<PlayerData> getRecent(String username) {
+        PlayerData data = pending.get(username);
+        if (data == null) {
+            data = recent.getIfPresent(StringUtils.encodeToBase37(username));
+        }
+        return Optional.ofNullable(data);
+    }
+
+    /**
+     * Replaces the pending snapshot for {@code username}, queueing the username if none was pending.
+     */
+    private void queue(String username, PlayerData data) {
+        recent.put(StringUtils.encodeToBase37(username), data);
+        if (pending.put(username, data) == null) {
+            dirty.add(username);
+        } else {
+            coalesced.incrementAndGet();
+        }
+    }
+
+    /**
+     * Saves the pending snapshot of every username in the current batch, then makes them all durable with one
+     * {@code sync()} call.
+     */
+    private void writeBatch() {
+        int size = batch.size();
+        PlayerData[] snapshots = new PlayerData[size];
+        boolean[] succeeded = new boolean[size];
+        try {
+            for (int index = 0; index < size; index++) {
+                String username = batch.get(index);
+                snapshots[index] = pending.get(username);
+                try {
+                    storage.save(username, snapshots[index]);
+                    succeeded[index] = true;
+                } catch (Exception e) {
+                    LOGGER.catching(e);
+                }
+            }
+            try {
+                storage.sync();
+            } catch (Exception e) {
+                LOGGER.catching(e);
+                Arrays.fill(succeeded, false);
+            }
+        } finally {
+            for (int index = 0; index < size; index++) {
+                String username = batch.get(index);
+                PlayerData data = snapshots[index];
+                if (!succeeded[index]) {
+                    scheduleRetry(username); /* Keep the pending snapshot, or the one that superseded it. */
+                    continue;
+                }
+
+                written.incrementAndGet();
+                failures.remove(username);
+                if (!pending.remove(username, data)) {
+                    dirty.add(username); /* Superseded while being written. */
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Schedules the pending snapshot of {@code username} to be written again, doubling the delay after every
+     * consecutive failure.
+     */
+    private void scheduleRetry(String username) {
+        int count = failures.merge(username, 1, Integer::sum);
+        long delay = RETRY_DELAY << Math.min(count - 1, 16);
+        retryTimes.put(username, System.nanoTime() + Math.min(delay, MAX_RETRY_DELAY));
+        LOGGER.warn("Save for {} failed {} time(s), retrying.", username, box(count));
+    }
+
+    /**
+     * Queues the usernames of failed saves that are due to be retried.
+     */
+    private void requeueRetries() {
+        long now = System.nanoTime();
+        Iterator<Entry<String, Long>> iterator = retryTimes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<String, Long> retry = iterator.next();
+            if (now - retry.getValue() >= 0) {
+                dirty.add(retry.getKey());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return The storage backend.
+     */
+    public PlayerStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return The statistics of the recently queued snapshot cache.
+     */
+    public CacheStats getCacheStats() {
+        return recent.stats();
+    }
+
+    /**
+     * @return The amount of snapshots waiting to be written.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return The amount of snapshots that replaced an unwritten one.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return The amount of saves written.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+}
@@ -0,0 +1,303 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import io.luna.game.model.Position;
+import io.luna.game.model.mob.Player;
+import io.luna.game.model.mob.PlayerRights;
+import io.luna.game.model.mob.Skill;
+import io.luna.game.model.mob.SkillSet;
+import io.luna.game.model.mob.attr.AttributeKey;
+import io.luna.game.model.mob.attr.AttributeValue;
+
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * A model representing a snapshot of all persistent {@link Player} data. Snapshots are taken on the game thread
+ * and are safe to hand off to other threads, since they don't reference any mutable game state. Attribute values
+ * that aren't primitives or strings are copied into {@link JsonAttribute}s.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PlayerData {
+
+    /**
+     * Takes a snapshot of {@code player}'s persistent data. Must be called on the game thread.
+     */
+    public static PlayerData of(Player player) {
+        Position position = player.getPosition();
+
+        int skillCount = SkillSet.size();
+        int[] skillLevels = new int[skillCount];
+        double[] skillExperience = new double[skillCount];
+        for (int index = 0; index < skillCount; index++) {
+            Skill skill = player.getSkills().getSkill(index);
+            skillLevels[index] = skill.getLevel();
+            skillExperience[index] = skill.getExperience();
+        }
+
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        for (Entry<String, AttributeValue<?>> it : player.getAttributes()) {
+            AttributeKey<?> key = AttributeKey.ALIASES.get(it.getKey());
+            if (key.isPersistent()) {
+                attributes.put(key.getName(), JsonAttribute.of(it.getValue().get()));
+            }
+        }
+
+        return new PlayerData(player.getPassword(), position.getX(), position.getY(), position.getZ(),
+            player.getRights(), player.getWalkingQueue().isRunning(), player.getAppearance().toArray(),
+            PackedItems.of(player.getInventory()), PackedItems.of(player.getBank()),
+            PackedItems.of(player.getEquipment()), skillLevels, skillExperience, attributes.build());
+    }
+
+    /**
+     * The password.
+     */
+    private final String password;
+
+    /**
+     * The {@code x} coordinate.
+     */
+    private final int x;
+
+    /**
+     * The {@code y} coordinate.
+     */
+    private final int y;
+
+    /**
+     * The {@code z} coordinate.
+     */
+    private final int z;
+
+    /**
+     * The rights.
+     */
+    private final PlayerRights rights;
+
+    /**
+     * If running is enabled.
+     */
+    private final boolean running;
+
+    /**
+     * The appearance values.
+     */
+    private final int[] appearance;
+
+    /**
+     * The inventory.
+     */
+    private final PackedItems inventory;
+
+    /**
+     * The bank.
+     */
+    private final PackedItems bank;
+
+    /**
+     * The equipment.
+     */
+    private final PackedItems equipment;
+
+    /**
+     * The skill levels.
+     */
+    private final int[] skillLevels;
+
+    /**
+     * The skill experience.
+     */
+    private final double[] skillExperience;
+
+    /**
+     * The persistent attributes, with values that aren't primitives or strings held as {@link JsonAttribute}s.
+     */
+    private final ImmutableMap<String, Object> attributes;
+
+    /**
+     * Creates a new {@link PlayerData}.
+     *
+     * @param password The password.
+     * @param x The {@code x} coordinate.
+     * @param y The {@code y} coordinate.
+     * @param z The {@code z} coordinate.
+     * @param rights The rights.
+     * @param running If running is enabled.
+     * @param appearance The appearance values.
+     * @param inventory The inventory.
+     * @param bank The bank.
+     * @param equipment The equipment.
+     * @param skillLevels The skill levels.
+     * @param skillExperience The skill experience.
+     * @param attributes The persistent attributes.
+     */
+    public PlayerData(String password, int x, int y, int z, PlayerRights rights, boolean running,
+        int[] appearance, PackedItems inventory, PackedItems bank, PackedItems equipment, int[] skillLevels,
+        double[] skillExperience, ImmutableMap<String, Object> attributes) {
+        this.password = password;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.rights = rights;
+        this.running = running;
+        this.appearance = appearance;
+        this.inventory = inventory;
+        this.bank = bank;
+        this.equipment = equipment;
+        this.skillLevels = skillLevels;
+        this.skillExperience = skillExperience;
+        this.attributes = attributes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(password, x, y, z, rights, running, Arrays.hashCode(appearance), inventory, bank,
+            equipment, Arrays.hashCode(skillLevels), Arrays.hashCode(skillExperience), attributes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof PlayerData) {
+            PlayerData other = (PlayerData) obj;
+            return x == other.x && y == other.y && z == other.z && running == other.running &&
+                rights == other.rights && password.equals(other.password) &&
+                Arrays.equals(appearance, other.appearance) && inventory.equals(other.inventory) &&
+                bank.equals(other.bank) && equipment.equals(other.equipment) &&
+                Arrays.equals(skillLevels, other.skillLevels) &&
+                Arrays.equals(skillExperience, other.skillExperience) && attributes.equals(other.attributes);
+        }
+        return false;
+    }
+
+    /**
+     * Applies this snapshot to {@code player}. Must be called before {@code player} is added to the world.
+     *
+     * @throws ClassNotFoundException If the class of a {@link JsonAttribute} doesn't exist.
+     */
+    public void applyTo(Player player) throws ClassNotFoundException {
+        player.setPosition(new Position(x, y, z));
+        player.setRights(rights);
+        player.getWalkingQueue().setRunning(running);
+        player.getAppearance().setValues(appearance);
+
+        inventory.applyTo(player.getInventory());
+        bank.applyTo(player.getBank());
+        equipment.applyTo(player.getEquipment());
+
+        SkillSet skills = player.getSkills();
+        skills.setFiringEvents(false);
+        try {
+            for (int index = 0; index < skillLevels.length; index++) {
+                Skill skill = skills.getSkill(index);
+                skill.setExperience(skillExperience[index]);
+                skill.setLevel(skillLevels[index]);
+            }
+        } finally {
+            skills.setFiringEvents(true);
+        }
+
+        for (Entry<String, Object> it : attributes.entrySet()) {
+            Object value = it.getValue();
+            if (value instanceof JsonAttribute) {
+                value = ((JsonAttribute) value).decode();
+            }
+            player.getAttributes().get(it.getKey()).set(value);
+        }
+    }
+
+    /**
+     * @return The password.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * @return The {@code x} coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return The {@code y} coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return The {@code z} coordinate.
+     */
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * @return The rights.
+     */
+    public PlayerRights getRights() {
+        return rights;
+    }
+
+    /**
+     * @return {@code true} if running is enabled.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return The appearance values.
+     */
+    public int[] getAppearance() {
+        return appearance;
+    }
+
+    /**
+     * @return The inventory.
+     */
+    public PackedItems getInventory() {
+        return inventory;
+    }
+
+    /**
+     * @return The bank.
+     */
+    public PackedItems getBank() {
+        return bank;
+    }
+
+    /**
+     * @return The equipment.
+     */
+    public PackedItems getEquipment() {
+        return equipment;
+    }
+
+    /**
+     * @return The skill levels.
+     */
+    public int[] getSkillLevels() {
+        return skillLevels;
+    }
+
+    /**
+     * @return The skill experience.
+     */
+    public double[] getSkillExperience() {
+        return skillExperience;
+    }
+
+    /**
+     * @return The persistent attributes.
+     */
+    public ImmutableMap<String, Object> getAttributes() {
+        return attributes;
+    }
+}
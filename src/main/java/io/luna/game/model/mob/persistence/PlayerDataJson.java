@@ -0,0 +1,155 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.luna.game.model.mob.PlayerRights;
+
+import java.util.Map.Entry;
+
+import static io.luna.util.GsonUtils.getAsType;
+import static io.luna.util.GsonUtils.toJsonTree;
+
+/**
+ * A static-utility class that converts {@link PlayerData} to and from the legacy {@code JSON} save layout. Used to
+ * migrate old saves and to export binary saves in a human readable form for debugging.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PlayerDataJson {
+
+    /**
+     * Converts {@code data} to the legacy {@code JSON} layout.
+     */
+    public static JsonObject toJson(PlayerData data) {
+        JsonObject tokens = new JsonObject();
+        tokens.addProperty("password", data.getPassword());
+
+        JsonObject position = new JsonObject();
+        position.addProperty("x", data.getX());
+        position.addProperty("y", data.getY());
+        position.addProperty("z", data.getZ());
+        tokens.add("position", position);
+
+        tokens.addProperty("rights", data.getRights().name());
+        tokens.addProperty("running", data.isRunning());
+        tokens.add("appearance", toJsonTree(data.getAppearance()));
+        tokens.add("inventory", itemsToJson(data.getInventory()));
+        tokens.add("bank", itemsToJson(data.getBank()));
+        tokens.add("equipment", itemsToJson(data.getEquipment()));
+
+        JsonArray skills = new JsonArray();
+        for (int index = 0; index < data.getSkillLevels().length; index++) {
+            JsonObject skill = new JsonObject();
+            skill.addProperty("level", data.getSkillLevels()[index]);
+            skill.addProperty("experience", data.getSkillExperience()[index]);
+            skills.add(skill);
+        }
+        tokens.add("skills", skills);
+
+        JsonObject attributes = new JsonObject();
+        for (Entry<String, Object> it : data.getAttributes().entrySet()) {
+            Object value = it.getValue();
+            JsonObject attribute = new JsonObject();
+            if (value instanceof JsonAttribute) {
+                JsonAttribute json = (JsonAttribute) value;
+                attribute.addProperty("type", json.getType());
+                attribute.add("value", new JsonParser().parse(json.getJson()));
+            } else {
+                attribute.addProperty("type", value.getClass().getName());
+                attribute.add("value", toJsonTree(value));
+            }
+            attributes.add(it.getKey(), attribute);
+        }
+        tokens.add("attributes", attributes);
+        return tokens;
+    }
+
+    /**
+     * Converts the legacy {@code JSON} layout to a {@link PlayerData}.
+     */
+    public static PlayerData fromJson(JsonObject reader, int inventoryCapacity, int bankCapacity,
+        int equipmentCapacity) throws ReflectiveOperationException {
+        String password = reader.get("password").getAsString();
+
+        JsonObject position = reader.get("position").getAsJsonObject();
+        int x = position.get("x").getAsInt();
+        int y = position.get("y").getAsInt();
+        int z = position.get("z").getAsInt();
+
+        PlayerRights rights = PlayerRights.valueOf(reader.get("rights").getAsString());
+        boolean running = reader.get("running").getAsBoolean();
+        int[] appearance = getAsType(reader.get("appearance"), int[].class);
+
+        PackedItems inventory = itemsFromJson(reader.get("inventory").getAsJsonArray(), inventoryCapacity);
+        PackedItems bank = itemsFromJson(reader.get("bank").getAsJsonArray(), bankCapacity);
+        PackedItems equipment = itemsFromJson(reader.get("equipment").getAsJsonArray(), equipmentCapacity);
+
+        JsonArray skills = reader.get("skills").getAsJsonArray();
+        int[] levels = new int[skills.size()];
+        double[] experience = new double[skills.size()];
+        for (int index = 0; index < skills.size(); index++) {
+            JsonObject skill = skills.get(index).getAsJsonObject();
+            levels[index] = skill.get("level").getAsInt();
+            experience[index] = skill.get("experience").getAsDouble();
+        }
+
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        JsonObject attr = reader.get("attributes").getAsJsonObject();
+        for (Entry<String, JsonElement> it : attr.entrySet()) {
+            JsonObject attrReader = it.getValue().getAsJsonObject();
+
+            Class<?> type = Class.forName(attrReader.get("type").getAsString());
+            attributes.put(it.getKey(), JsonAttribute.of(getAsType(attrReader.get("value"), type)));
+        }
+
+        return new PlayerData(password, x, y, z, rights, running, appearance, inventory, bank, equipment, levels,
+            experience, attributes.build());
+    }
+
+    /**
+     * Converts the occupied slots of {@code items} to an array of indexed items.
+     */
+    private static JsonArray itemsToJson(PackedItems items) {
+        JsonArray array = new JsonArray();
+        for (int index = 0; index < items.getCapacity(); index++) {
+            int amount = items.getAmount(index);
+            if (amount > 0) {
+                JsonObject item = new JsonObject();
+                item.addProperty("id", items.getId(index));
+                item.addProperty("amount", amount);
+
+                JsonObject indexedItem = new JsonObject();
+                indexedItem.addProperty("index", index);
+                indexedItem.add("item", item);
+                array.add(indexedItem);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Converts an array of indexed items to packed items with {@code capacity}.
+     */
+    private static PackedItems itemsFromJson(JsonArray array, int capacity) {
+        int[] ids = new int[capacity];
+        int[] amounts = new int[capacity];
+        for (JsonElement element : array) {
+            JsonObject indexedItem = element.getAsJsonObject();
+            JsonObject item = indexedItem.get("item").getAsJsonObject();
+
+            int index = indexedItem.get("index").getAsInt();
+            ids[index] = item.get("id").getAsInt();
+            amounts[index] = item.get("amount").getAsInt();
+        }
+        return new PackedItems(ids, amounts);
+    }
+
+    /**
+     * A private constructor to discourage external instantiation.
+     */
+    private PlayerDataJson() {
+    }
+}
@@ -0,0 +1,218 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonParseException;
+import io.luna.game.model.mob.PlayerRights;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.MAGIC;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.TYPE_BOOLEAN;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.TYPE_DOUBLE;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.TYPE_INT;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.TYPE_JSON;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.TYPE_LONG;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.TYPE_STRING;
+import static io.luna.game.model.mob.persistence.PlayerDataWriter.VERSION;
+
+/**
+ * A streaming reader for the compact binary {@link PlayerData} format written by {@link PlayerDataWriter}. The
+ * password is read separately so that a login with invalid credentials never has to decode the rest of the
+ * save. Saves from version {@code 2} onwards have their body verified against a checksum before anything is
+ * decoded.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PlayerDataReader implements Closeable {
+
+    /**
+     * The largest body length accepted, far beyond any real save. Guards against corrupt headers.
+     */
+    private static final int MAX_BODY_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * The underlying input stream.
+     */
+    private final DataInputStream source;
+
+    /**
+     * The input stream being decoded, either the underlying stream or the verified body.
+     */
+    private DataInputStream in;
+
+    /**
+     * The format version being read.
+     */
+    private int version = -1;
+
+    /**
+     * The password, or {@code null} if it hasn't been read yet.
+     */
+    private String password;
+
+    /**
+     * Creates a new {@link PlayerDataReader}.
+     *
+     * @param in The input stream.
+     */
+    public PlayerDataReader(InputStream in) {
+        source = new DataInputStream(new BufferedInputStream(in));
+        this.in = source;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Reads the header and the password. Must be called before {@code readData()}.
+     */
+    public String readPassword() throws IOException {
+        checkState(password == null, "password already read");
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a binary player save");
+        }
+        version = in.readUnsignedShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("unsupported save version " + version);
+        }
+        if (version >= 2) {
+            verifyBody();
+        }
+        password = in.readUTF();
+        return password;
+    }
+
+    /**
+     * Reads the body and verifies it against its checksum, decoding from the verified body afterwards.
+     */
+    private void verifyBody() throws IOException {
+        int length = in.readInt();
+        int expected = in.readInt();
+        if (length < 0 || length > MAX_BODY_LENGTH) {
+            throw new IOException("invalid body length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, length);
+        if ((int) checksum.getValue() != expected) {
+            throw new IOException("save checksum mismatch");
+        }
+        in = new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Reads the rest of the save, reading the header and password first if needed.
+     */
+    public PlayerData readData() throws IOException {
+        if (password == null) {
+            readPassword();
+        }
+
+        PlayerRights rights = PlayerRights.valueOf(in.readUTF());
+        int x = in.readInt();
+        int y = in.readInt();
+        int z = in.readByte();
+        boolean running = in.readBoolean();
+
+        int[] appearance = new int[in.readUnsignedByte()];
+        for (int index = 0; index < appearance.length; index++) {
+            appearance[index] = in.readShort();
+        }
+
+        PackedItems inventory = readItems();
+        PackedItems bank = readItems();
+        PackedItems equipment = readItems();
+
+        int skillCount = in.readUnsignedByte();
+        int[] levels = new int[skillCount];
+        double[] experience = new double[skillCount];
+        for (int index = 0; index < skillCount; index++) {
+            levels[index] = in.readUnsignedByte();
+            experience[index] = in.readDouble();
+        }
+
+        int attributeCount = in.readUnsignedShort();
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        for (int index = 0; index < attributeCount; index++) {
+            String name = in.readUTF();
+            attributes.put(name, readAttribute());
+        }
+
+        return new PlayerData(password, x, y, z, rights, running, appearance, inventory, bank, equipment, levels,
+            experience, attributes.build());
+    }
+
+    /**
+     * Reads the occupied slots of an item container.
+     */
+    private PackedItems readItems() throws IOException {
+        int capacity = in.readUnsignedShort();
+        int size = in.readUnsignedShort();
+
+        int[] ids = new int[capacity];
+        int[] amounts = new int[capacity];
+        for (int count = 0; count < size; count++) {
+            int index = in.readUnsignedShort();
+            ids[index] = in.readUnsignedShort();
+            amounts[index] = in.readInt();
+        }
+        return new PackedItems(ids, amounts);
+    }
+
+    /**
+     * Reads a type tag and value for a persistent attribute.
+     */
+    private Object readAttribute() throws IOException {
+        int type = in.readUnsignedByte();
+        switch (type) {
+        case TYPE_BOOLEAN:
+            return in.readBoolean();
+        case TYPE_INT:
+            return in.readInt();
+        case TYPE_LONG:
+            return in.readLong();
+        case TYPE_DOUBLE:
+            return in.readDouble();
+        case TYPE_STRING:
+            return in.readUTF();
+        case TYPE_JSON:
+            String className = in.readUTF();
+            int length = in.readInt();
+            if (length < 0 || length > MAX_BODY_LENGTH) {
+                throw new IOException("invalid attribute length " + length);
+            }
+            byte[] json = new byte[length];
+            in.readFully(json);
+            JsonAttribute attribute = new JsonAttribute(className, new String(json, StandardCharsets.UTF_8));
+            try {
+                attribute.decode();
+            } catch (ClassNotFoundException | JsonParseException e) {
+                throw new IOException("unreadable attribute of type " + className, e);
+            }
+            return attribute;
+        default:
+            throw new IOException("unknown attribute type " + type);
+        }
+    }
+
+    /**
+     * @return The format version being read, {@code -1} if the header hasn't been read yet.
+     */
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,206 @@
+package io.luna.game.model.mob.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A streaming writer for the compact binary {@link PlayerData} format. The layout of the current version is
+ * <pre>
+ * int     magic
+ * short   version
+ * int     body length
+ * int     body CRC32
+ * utf     password
+ * utf     rights
+ * int     x, int y, byte z
+ * boolean running
+ * byte    appearance count, short[] appearance
+ * items   inventory, bank, equipment
+ * byte    skill count, (byte level, double experience)[]
+ * short   attribute count, (utf name, byte type, value)[]
+ * </pre>
+ * where {@code items} is a capacity and an occupied slot count, followed by a {@code (short index, short id, int
+ * amount)} triple for every occupied slot. Attribute values that aren't primitives or strings are written as
+ * their class name and {@code JSON}, like the old save format. Everything after the checksum is the body, which is
+ * buffered so that it can be checksummed before being written.
+ * <p>
+ * Fields must only ever be appended, along with an increment of {@code VERSION} and a matching branch in
+ * {@link PlayerDataReader}.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PlayerDataWriter implements Closeable {
+
+    /**
+     * The magic value identifying binary saves.
+     */
+    static final int MAGIC = 0x4C554E41;
+
+    /**
+     * The current format version.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The {@code boolean} attribute type.
+     */
+    static final int TYPE_BOOLEAN = 0;
+
+    /**
+     * The {@code int} attribute type.
+     */
+    static final int TYPE_INT = 1;
+
+    /**
+     * The {@code long} attribute type.
+     */
+    static final int TYPE_LONG = 2;
+
+    /**
+     * The {@code double} attribute type.
+     */
+    static final int TYPE_DOUBLE = 3;
+
+    /**
+     * The {@code String} attribute type.
+     */
+    static final int TYPE_STRING = 4;
+
+    /**
+     * The attribute type for any other value, written as its class name and {@code JSON} representation.
+     */
+    static final int TYPE_JSON = 5;
+
+    /**
+     * The output stream.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * The buffer holding the body.
+     */
+    private final ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream(1024);
+
+    /**
+     * The body checksum.
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * The stream writing to the body buffer, checksumming as it goes.
+     */
+    private final DataOutputStream body = new DataOutputStream(new CheckedOutputStream(bodyBuffer, checksum));
+
+    /**
+     * Creates a new {@link PlayerDataWriter}.
+     *
+     * @param out The output stream.
+     */
+    public PlayerDataWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes {@code data} and flushes the underlying stream.
+     */
+    public void write(PlayerData data) throws IOException {
+        bodyBuffer.reset();
+        checksum.reset();
+
+        body.writeUTF(data.getPassword());
+        body.writeUTF(data.getRights().name());
+        body.writeInt(data.getX());
+        body.writeInt(data.getY());
+        body.writeByte(data.getZ());
+        body.writeBoolean(data.isRunning());
+
+        int[] appearance = data.getAppearance();
+        body.writeByte(appearance.length);
+        for (int value : appearance) {
+            body.writeShort(value);
+        }
+
+        writeItems(data.getInventory());
+        writeItems(data.getBank());
+        writeItems(data.getEquipment());
+
+        int[] levels = data.getSkillLevels();
+        double[] experience = data.getSkillExperience();
+        body.writeByte(levels.length);
+        for (int index = 0; index < levels.length; index++) {
+            body.writeByte(levels[index]);
+            body.writeDouble(experience[index]);
+        }
+
+        body.writeShort(data.getAttributes().size());
+        for (Entry<String, Object> it : data.getAttributes().entrySet()) {
+            body.writeUTF(it.getKey());
+            writeAttribute(it.getValue());
+        }
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(bodyBuffer.size());
+        out.writeInt((int) checksum.getValue());
+        bodyBuffer.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Writes the occupied slots of {@code items}.
+     */
+    private void writeItems(PackedItems items) throws IOException {
+        body.writeShort(items.getCapacity());
+        body.writeShort(items.computeSize());
+        for (int index = 0; index < items.getCapacity(); index++) {
+            int amount = items.getAmount(index);
+            if (amount > 0) {
+                body.writeShort(index);
+                body.writeShort(items.getId(index));
+                body.writeInt(amount);
+            }
+        }
+    }
+
+    /**
+     * Writes a type tag and value for a persistent attribute.
+     */
+    private void writeAttribute(Object value) throws IOException {
+        if (value instanceof Boolean) {
+            body.writeByte(TYPE_BOOLEAN);
+            body.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            body.writeByte(TYPE_INT);
+            body.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            body.writeByte(TYPE_LONG);
+            body.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            body.writeByte(TYPE_DOUBLE);
+            body.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            body.writeByte(TYPE_STRING);
+            body.writeUTF((String) value);
+        } else {
+            JsonAttribute attribute = (JsonAttribute) JsonAttribute.of(value);
+            byte[] json = attribute.getJson().getBytes(StandardCharsets.UTF_8);
+            body.writeByte(TYPE_JSON);
+            body.writeUTF(attribute.getType());
+            body.writeInt(json.length);
+            body.write(json);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.luna.game.model.mob.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A backend that stores {@link PlayerData}. Implementations must allow loads from any thread concurrently with
+ * saves from the persistence thread.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public interface PlayerStorage extends Closeable {
+
+    /**
+     * Creates the storage backend named {@code name}, either {@code "file"} or {@code "log"}.
+     */
+    static PlayerStorage create(String name) throws IOException {
+        switch (name) {
+        case "file":
+            return new FilePlayerStorage();
+        case "log":
+            return new LogPlayerStorage(SaveFiles.getDirectory().resolve("log"));
+        default:
+            throw new IllegalArgumentException("unknown player storage " + name);
+        }
+    }
+
+    /**
+     * Loads the data of {@code username}, or returns an empty optional if they have no save.
+     */
+    Optional<PlayerData> load(String username) throws IOException;
+
+    /**
+     * Saves {@code data} for {@code username}. The save is only guaranteed to be durable after {@code sync()}.
+     */
+    void save(String username, PlayerData data) throws IOException;
+
+    /**
+     * Makes every save so far durable.
+     */
+    void sync() throws IOException;
+
+    /**
+     * Runs background maintenance. Called by the persistence thread while it's idle.
+     */
+    default void compact() throws IOException {
+    }
+
+    /**
+     * Retrieves the usernames of every save.
+     */
+    Set<String> getUsernames() throws IOException;
+}
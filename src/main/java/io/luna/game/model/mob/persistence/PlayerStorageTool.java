@@ -0,0 +1,111 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.luna.game.model.item.Bank;
+import io.luna.game.model.item.Equipment;
+import io.luna.game.model.item.Inventory;
+import io.luna.util.GsonUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A command line tool that bulk exports saves from a {@link PlayerStorage} to a directory of {@code JSON} files,
+ * and bulk imports them back into a storage. Legacy {@code JSON} saves use the same layout, so they can be
+ * imported directly. Moving saves between backends is an export from one followed by an import into the other.
+ * <pre>
+ * export &lt;storage&gt; &lt;directory&gt;
+ * import &lt;directory&gt; &lt;storage&gt;
+ * </pre>
+ * The server must not be running while the tool is used.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PlayerStorageTool {
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Invoked when this program is started.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            LOGGER.error("Usage: export <storage> <directory> | import <directory> <storage>");
+            return;
+        }
+
+        switch (args[0]) {
+        case "export":
+            exportAll(args[1], Paths.get(args[2]));
+            break;
+        case "import":
+            importAll(Paths.get(args[1]), args[2]);
+            break;
+        default:
+            LOGGER.error("Unknown operation {}.", args[0]);
+            break;
+        }
+    }
+
+    /**
+     * Exports every save within {@code storageName} to {@code directory}.
+     */
+    private static void exportAll(String storageName, Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        int count = 0;
+        try (PlayerStorage storage = PlayerStorage.create(storageName)) {
+            for (String username : storage.getUsernames()) {
+                Optional<PlayerData> data = storage.load(username);
+                if (data.isPresent()) {
+                    GsonUtils.writeJson(PlayerDataJson.toJson(data.get()),
+                        directory.resolve(username + ".json").toFile());
+                    count++;
+                }
+            }
+        }
+        LOGGER.info("Exported {} save(s) to {}.", box(count), directory);
+    }
+
+    /**
+     * Imports every save within {@code directory} into {@code storageName}.
+     */
+    private static void importAll(Path directory, String storageName) throws Exception {
+        int count = 0;
+        try (PlayerStorage storage = PlayerStorage.create(storageName);
+             DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String username = fileName.substring(0, fileName.length() - 5);
+
+                try (Reader reader = Files.newBufferedReader(path)) {
+                    JsonObject jsonReader = new JsonParser().parse(reader).getAsJsonObject();
+                    storage.save(username, PlayerDataJson.fromJson(jsonReader, Inventory.SIZE, Bank.SIZE,
+                        Equipment.SIZE));
+                }
+                count++;
+            }
+            storage.sync();
+        }
+        LOGGER.info("Imported {} save(s) from {}.", box(count), directory);
+    }
+
+    /**
+     * A private constructor to discourage external instantiation.
+     */
+    private PlayerStorageTool() {
+    }
+}
@@ -0,0 +1,110 @@
+package io.luna.game.model.mob.persistence;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A static-utility class that manages binary save files. Saves are never rewritten in place: a save is written
+ * to a temporary file and forced to disk, then renamed over the current save, whose previous generation is kept
+ * as a backup. A crash at any point leaves either the current save or the backup intact.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class SaveFiles {
+
+    /**
+     * The path to serialized player files.
+     */
+    private static final Path DIRECTORY = Paths.get("./data/saved_players");
+
+    static { /* Initialize serialization directory. */
+        try {
+            if (Files.notExists(DIRECTORY)) {
+                Files.createDirectory(DIRECTORY);
+            }
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Retrieves the path to the current save of {@code username}.
+     */
+    public static Path getPath(String username) {
+        return DIRECTORY.resolve(username + ".dat");
+    }
+
+    /**
+     * Retrieves the path to the previous generation save of {@code username}.
+     */
+    public static Path getBackupPath(String username) {
+        return DIRECTORY.resolve(username + ".dat.bak");
+    }
+
+    /**
+     * Retrieves the path to the temporary save of {@code username}.
+     */
+    public static Path getTempPath(String username) {
+        return DIRECTORY.resolve(username + ".dat.tmp");
+    }
+
+    /**
+     * Writes {@code data} to the temporary save of {@code username} and forces it to disk.
+     */
+    public static void writeTemp(String username, PlayerData data) throws IOException {
+        try (FileChannel channel = FileChannel.open(getTempPath(username), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            new PlayerDataWriter(Channels.newOutputStream(channel)).write(data);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Makes the temporary save of {@code username} current, keeping the current save as the backup. Renames are
+     * only durable once {@code forceDirectory()} is called.
+     */
+    public static void commit(String username) throws IOException {
+        Path path = getPath(username);
+        if (Files.exists(path)) {
+            Files.move(path, getBackupPath(username), StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(getTempPath(username), path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Forces the save directory to disk, making renames durable.
+     */
+    public static void forceDirectory() {
+        forceDirectory(DIRECTORY);
+    }
+
+    /**
+     * Forces {@code directory} to disk, making renames, creations, and deletions within it durable. Not every
+     * platform allows this, so failures are ignored.
+     */
+    public static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * @return The path to serialized player files.
+     */
+    public static Path getDirectory() {
+        return DIRECTORY;
+    }
+
+    /**
+     * A private constructor to discourage external instantiation.
+     */
+    private SaveFiles() {
+    }
+}
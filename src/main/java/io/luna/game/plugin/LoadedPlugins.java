@@ -0,0 +1,111 @@
+package io.luna.game.plugin;
+
+import com.google.common.hash.HashCode;
+import io.luna.game.event.EventListenerPipelineSet;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The plugins currently loaded by a {@link PluginBootstrap}, kept between hotfixes so that only changed plugin
+ * files have to be reloaded. Only accessed while holding the lock of the owning {@link PluginManager}.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+final class LoadedPlugins {
+
+    /**
+     * The hash of the loaded bootstrap.
+     */
+    private final HashCode bootstrapHash;
+
+    /**
+     * The directory containing the loaded bootstrap's classes.
+     */
+    private final Path bootstrapDir;
+
+    /**
+     * The class loader of the loaded bootstrap, the parent of every plugin class loader.
+     */
+    private final ClassLoader bootstrapLoader;
+
+    /**
+     * The loaded bootstrap instance.
+     */
+    private final Object bootstrap;
+
+    /**
+     * The pipeline set that plugins add their listeners to.
+     */
+    private final EventListenerPipelineSet registry;
+
+    /**
+     * The directory containing each loaded plugin's classes, by plugin file name.
+     */
+    private final Map<String, Path> pluginDirs = new HashMap<>();
+
+    /**
+     * Creates a new {@link LoadedPlugins}.
+     *
+     * @param bootstrapHash The hash of the loaded bootstrap.
+     * @param bootstrapDir The directory containing the loaded bootstrap's classes.
+     * @param bootstrapLoader The class loader of the loaded bootstrap.
+     * @param bootstrap The loaded bootstrap instance.
+     * @param registry The pipeline set that plugins add their listeners to.
+     */
+    LoadedPlugins(HashCode bootstrapHash, Path bootstrapDir, ClassLoader bootstrapLoader, Object bootstrap,
+                  EventListenerPipelineSet registry) {
+        this.bootstrapHash = bootstrapHash;
+        this.bootstrapDir = bootstrapDir;
+        this.bootstrapLoader = bootstrapLoader;
+        this.bootstrap = bootstrap;
+        this.registry = registry;
+    }
+
+    /**
+     * Returns every directory containing loaded classes.
+     */
+    Set<Path> getDirectories() {
+        Set<Path> directories = new HashSet<>(pluginDirs.values());
+        directories.add(bootstrapDir);
+        return directories;
+    }
+
+    /**
+     * @return The hash of the loaded bootstrap.
+     */
+    HashCode getBootstrapHash() {
+        return bootstrapHash;
+    }
+
+    /**
+     * @return The class loader of the loaded bootstrap.
+     */
+    ClassLoader getBootstrapLoader() {
+        return bootstrapLoader;
+    }
+
+    /**
+     * @return The loaded bootstrap instance.
+     */
+    Object getBootstrap() {
+        return bootstrap;
+    }
+
+    /**
+     * @return The pipeline set that plugins add their listeners to.
+     */
+    EventListenerPipelineSet getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return The directory containing each loaded plugin's classes, by plugin file name.
+     */
+    Map<String, Path> getPluginDirs() {
+        return pluginDirs;
+    }
+}
@@ -1,34 +1,59 @@
 package io.luna.game.plugin;
 
-import com.google.common.io.Files;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.luna.LunaContext;
 import io.luna.game.GameService;
+import io.luna.game.event.EventListener;
+import io.luna.game.event.EventListenerPipeline;
 import io.luna.game.event.EventListenerPipelineSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Scanner;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
-import java.util.concurrent.atomic.AtomicReference;
-
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkState;
 import static org.apache.logging.log4j.util.Unbox.box;
 
 /**
- * A bootstrapper that initializes and evaluates all {@code Scala} dependencies and plugins.
+ * A bootstrapper that compiles, caches, and loads all {@code Scala} dependencies and plugins.
+ * <p>
+ * {@code bootstrap.scala} is wrapped in a class whose members every plugin imports, and each plugin is wrapped in
+ * a class whose constructor runs the plugin's statements. Compiled classes are cached by a hash of their source,
+ * the bootstrap they depend on, and the server classes they were compiled against. Only plugins whose hash has
+ * changed are recompiled, so warm boots load classes directly without ever loading the {@code Scala} compiler.
  *
  * @author lare96 <http://github.org/lare96>
  */
@@ -61,22 +86,52 @@ public final class PluginBootstrap implements Callable<EventListenerPipelineSet>
     /**
      * The directory containing plugin files.
      */
-    private static final String DIR = "./plugins/";
+    private static final Path DIR = Paths.get("./plugins/");
+
+    /**
+     * The directory containing compiled plugins.
+     */
+    private static final Path CACHE_DIR = Paths.get("./data/cache/plugins");
+
+    /**
+     * The name of the bootstrap file.
+     */
+    private static final String BOOTSTRAP = "bootstrap.scala";
 
     /**
-     * The pipeline set.
+     * The package of the compiled bootstrap.
      */
-    private final EventListenerPipelineSet pipelines = new EventListenerPipelineSet();
+    private static final String BOOTSTRAP_PACKAGE = "luna.bootstrap";
 
     /**
-     * A map of file names to their contents.
+     * The package of compiled plugins.
      */
-    private final Map<String, String> files = new HashMap<>();
+    private static final String PLUGIN_PACKAGE = "luna.plugins";
 
     /**
-     * The current file being evaluated.
+     * The version of the generated source format. Must be bumped whenever the generated sources change.
      */
-    private final AtomicReference<String> currentFile = new AtomicReference<>();
+    private static final int VERSION = 1;
+
+    /**
+     * The pipeline set, set once loading completes.
+     */
+    private EventListenerPipelineSet pipelines;
+
+    /**
+     * The amount of plugin files loaded, not counting unchanged ones that were already loaded.
+     */
+    private int loadedCount;
+
+    /**
+     * The amount of unchanged plugin files that were already loaded.
+     */
+    private int unchangedCount;
+
+    /**
+     * A map of plugin file names, relative to the plugin directory, to their contents.
+     */
+    private final Map<String, String> files = new TreeMap<>();
 
     /**
      * The context instance.
@@ -84,9 +139,14 @@ public final class PluginBootstrap implements Callable<EventListenerPipelineSet>
     private final LunaContext context;
 
     /**
-     * The script engine evaluating {@code Scala} code.
+     * The directory containing plugin files.
      */
-    private final ScriptEngine engine;
+    private final Path pluginDir;
+
+    /**
+     * The directory containing compiled plugins.
+     */
+    private final Path cacheDir;
 
     /**
      * Creates a new {@link PluginBootstrap}.
@@ -94,25 +154,38 @@ public final class PluginBootstrap implements Callable<EventListenerPipelineSet>
      * @param context The context instance.
      */
     public PluginBootstrap(LunaContext context) {
+        this(context, DIR, CACHE_DIR);
+    }
+
+    /**
+     * Creates a new {@link PluginBootstrap} that loads plugins from a different directory.
+     *
+     * @param context The context instance.
+     * @param pluginDir The directory containing plugin files.
+     * @param cacheDir The directory containing compiled plugins.
+     */
+    PluginBootstrap(LunaContext context, Path pluginDir, Path cacheDir) {
         this.context = context;
-        engine = new ScriptEngineManager(ClassLoader.getSystemClassLoader()).getEngineByName("scala");
+        this.pluginDir = pluginDir;
+        this.cacheDir = cacheDir;
     }
 
     @Override
     public EventListenerPipelineSet call() throws Exception {
         init();
-        LOGGER.info("A total of {} Scala plugin files were successfully interpreted.", box(files.size()));
+        LOGGER.info("A total of {} Scala plugin files were successfully loaded ({} unchanged).", box(loadedCount),
+            box(unchangedCount));
         return pipelines;
     }
 
     /**
-     * Initializes this bootstrap using the argued listening executor.
+     * Initializes this bootstrap on the calling thread, blocking until every plugin has been loaded. The pipelines
+     * are swapped in directly instead of on the game thread, so this must only be used before the game service
+     * starts.
      */
-    public void load(ListeningExecutorService service) {
-        Executor directExecutor = MoreExecutors.directExecutor();
-
-        Futures.addCallback(service.submit(new PluginBootstrap(context)), new PluginBootstrapCallback(),
-                directExecutor);
+    public void loadNow() throws Exception {
+        EventListenerPipelineSet result = call();
+        context.getPlugins().getPipelines().swap(result);
     }
 
     /**
@@ -127,73 +200,294 @@ public final class PluginBootstrap implements Callable<EventListenerPipelineSet>
     }
 
     /**
-     * Initializes this bootstrapper, loading all of the plugins.
+     * Initializes this bootstrapper. If the bootstrap is unchanged since the last load, only plugin files that
+     * changed are compiled and loaded, replacing the listeners their previous versions added. Otherwise, the
+     * bootstrap and every plugin are loaded from scratch, and nothing is replaced unless every plugin loads.
      */
     private void init() throws Exception {
         initFiles();
-        initDependencies();
-        initPlugins();
+
+        String bootstrap = files.remove(BOOTSTRAP);
+        checkState(bootstrap != null, "%s not found", BOOTSTRAP);
+
+        HashCode bootstrapHash = Hashing.murmur3_128().newHasher().
+            putInt(VERSION).
+            putBytes(fingerprintServer().asBytes()).
+            putString(bootstrap, StandardCharsets.UTF_8).hash();
+        Path bootstrapDir = cacheDir.resolve("bootstrap-" + bootstrapHash);
+
+        Map<String, Path> pluginDirs = new TreeMap<>();
+        for (Entry<String, String> file : files.entrySet()) {
+            HashCode pluginHash = Hashing.murmur3_128().newHasher().
+                putBytes(bootstrapHash.asBytes()).
+                putString(file.getKey(), StandardCharsets.UTF_8).
+                putString(file.getValue(), StandardCharsets.UTF_8).hash();
+            pluginDirs.put(file.getKey(), cacheDir.resolve("plugin-" + pluginHash));
+        }
+
+        Files.createDirectories(cacheDir);
+        PluginManager plugins = context.getPlugins();
+        synchronized (plugins) {
+            LoadedPlugins previous = plugins.getLoaded();
+            LoadedPlugins loaded = previous;
+            if (previous == null || !previous.getBootstrapHash().equals(bootstrapHash)) {
+                if (Files.notExists(bootstrapDir) && !compile(ImmutableMap.of(BOOTSTRAP, wrapBootstrap(bootstrap)),
+                    ImmutableMap.of(BOOTSTRAP, bootstrapDir), ImmutableList.of()).isEmpty()) {
+                    throw new PluginFailureException("bootstrap failed to compile, see the errors above");
+                }
+                loaded = loadBootstrap(bootstrapHash, bootstrapDir);
+            }
+
+            /* Unload deleted plugins, then compile and load new or changed ones. */
+            EventListenerPipelineSet registry = loaded.getRegistry();
+            Map<String, Path> loadedDirs = loaded.getPluginDirs();
+            for (String name : ImmutableList.copyOf(loadedDirs.keySet())) {
+                if (!pluginDirs.containsKey(name)) {
+                    registry.removeIf(listener -> name.equals(listener.getPlugin()));
+                    loadedDirs.remove(name);
+                }
+            }
+
+            Map<String, Path> changed = new TreeMap<>(pluginDirs);
+            changed.entrySet().removeIf(plugin -> plugin.getValue().equals(loadedDirs.get(plugin.getKey())));
+
+            String imports = bootstrapImports(bootstrap);
+            Map<String, String> sources = new LinkedHashMap<>();
+            for (Entry<String, Path> plugin : changed.entrySet()) {
+                if (Files.notExists(plugin.getValue())) {
+                    String name = plugin.getKey();
+                    sources.put(name, wrapPlugin(name, files.get(name), imports));
+                }
+            }
+
+            Set<String> failed = compile(sources, changed, ImmutableList.of(bootstrapDir));
+            for (Entry<String, Path> plugin : changed.entrySet()) {
+                String name = plugin.getKey();
+                if (!failed.contains(name) && !loadPlugin(loaded, name, plugin.getValue())) {
+                    failed.add(name);
+                }
+            }
+
+            if (!failed.isEmpty()) {
+                if (previous == null) {
+                    throw new PluginFailureException("plugin file(s) failed to load: " + failed);
+                } else if (loaded != previous) {
+                    /* A fresh registry has no previous versions to fall back on, so keep the old one. */
+                    throw new PluginFailureException("plugin file(s) " + failed + " failed to load against the " +
+                        "changed bootstrap, the previously loaded plugins are still loaded");
+                }
+                LOGGER.warn("Plugin file(s) {} failed to reload, any previous versions are still loaded.", failed);
+            }
+            loadedCount = changed.size() - failed.size();
+            unchangedCount = pluginDirs.size() - changed.size();
+
+            Set<Path> keep = loaded.getDirectories();
+            if (previous != null) {
+                keep.addAll(previous.getDirectories()); /* May still be in use until the swap. */
+            }
+            deleteUnused(keep);
+
+            plugins.setLoaded(loaded);
+            pipelines = registry.copy();
+        }
     }
 
     /**
      * Parses files in the plugin directory and caches their contents.
      */
     private void initFiles() throws Exception {
-        Iterable<File> dirFiles = Files.fileTraverser().depthFirstPreOrder(new File(DIR));
+        Path root = pluginDir;
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path) && path.toString().endsWith(".scala")) {
+                    String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+                    files.put(name, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles {@code sources}, moving the classes of each file into its directory in {@code cacheDirs}. Files
+     * that fail to compile are left out and the rest are compiled again, so an error in one file never prevents
+     * the others from loading.
+     *
+     * @return The names of the files that failed to compile.
+     */
+    private Set<String> compile(Map<String, String> sources, Map<String, Path> cacheDirs, List<Path> classpath)
+        throws IOException {
+        Set<String> failed = new TreeSet<>();
+        if (sources.isEmpty()) {
+            return failed;
+        }
 
-        for (File file : dirFiles) {
-            if (file.isFile() && file.getName().endsWith(".scala")) {
-                files.put(file.getName(), Files.asCharSource(file, StandardCharsets.UTF_8).read());
+        long start = System.nanoTime();
+        Map<String, String> remaining = new LinkedHashMap<>(sources);
+        while (!remaining.isEmpty()) {
+            Path outputDir = Files.createTempDirectory(cacheDir, "compile-");
+            try {
+                ListMultimap<String, String> errors = new PluginCompiler().compile(remaining, outputDir, classpath);
+                if (errors.isEmpty()) {
+                    for (String name : remaining.keySet()) {
+                        move(outputDir, name.equals(BOOTSTRAP) ? BOOTSTRAP_PACKAGE : pluginPackage(name),
+                            cacheDirs.get(name));
+                    }
+                    break;
+                }
+                errors.forEach((name, error) -> LOGGER.error("{}: {}", name, error));
+
+                Set<String> failing = new HashSet<>(Sets.intersection(errors.keySet(), remaining.keySet()));
+                if (failing.isEmpty()) {
+                    failing.addAll(remaining.keySet()); /* Errors that can't be attributed to a file. */
+                }
+                failed.addAll(failing);
+                remaining.keySet().removeAll(failing);
+            } finally {
+                MoreFiles.deleteRecursively(outputDir, RecursiveDeleteOption.ALLOW_INSECURE);
             }
         }
+        LOGGER.info("Compiled {} Scala plugin file(s) in {} ms.", box(sources.size() - failed.size()),
+            box(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return failed;
     }
 
     /**
-     * Injects state into the script engine and evaluates dependencies.
+     * Moves the compiled classes of {@code packageName} from {@code outputDir} into the cache directory
+     * {@code cacheDir}. The cache directory only appears once it's complete.
      */
-    private void initDependencies() throws Exception {
-        engine.put("$context$", context);
-        engine.put("$logger$", LOGGER);
-        engine.put("$pipelines$", pipelines);
+    private void move(Path outputDir, String packageName, Path cacheDir) throws IOException {
+        String packagePath = packageName.replace('.', File.separatorChar);
+        Path tempDir = outputDir.resolve(cacheDir.getFileName());
 
-        currentFile.set("bootstrap.scala");
+        Files.createDirectories(tempDir.resolve(packagePath).getParent());
+        Files.move(outputDir.resolve(packagePath), tempDir.resolve(packagePath));
+        if (Files.notExists(cacheDir)) {
+            Files.move(tempDir, cacheDir, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
 
-        String bootstrap = files.remove(currentFile.get());
-        splitAndRunModules(bootstrap);
+    /**
+     * Loads the compiled bootstrap into a new class loader, and runs it.
+     */
+    private LoadedPlugins loadBootstrap(HashCode bootstrapHash, Path bootstrapDir) throws Exception {
+        ClassLoader loader = new URLClassLoader(new URL[]{bootstrapDir.toUri().toURL()},
+            PluginBootstrap.class.getClassLoader());
+        EventListenerPipelineSet registry = new EventListenerPipelineSet();
+        try {
+            Object bootstrap = loader.loadClass(BOOTSTRAP_PACKAGE + ".Bootstrap").
+                getConstructor(Object.class, Object.class, Object.class).newInstance(context, LOGGER, registry);
+            return new LoadedPlugins(bootstrapHash, bootstrapDir, loader, bootstrap, registry);
+        } catch (InvocationTargetException e) {
+            throw new PluginFailureException("bootstrap failed to load: " + e.getCause());
+        }
     }
 
     /**
-     * Splits the Scala bootstrap up into modules.
+     * Loads a compiled plugin into its own class loader and runs it. If it runs successfully, the listeners
+     * added by its previous version are removed. Otherwise, the listeners it added are removed and its previous
+     * version stays loaded.
+     *
+     * @return {@code true} if the plugin was loaded successfully.
      */
-    private void splitAndRunModules(String bootstrap) throws ScriptException {
-        // TODO Cleanup, error handling by module. Temporary workaround.
-        StringBuilder eval = new StringBuilder();
-        boolean first = true;
-        try (Scanner sc = new Scanner(bootstrap)) {
-            while (sc.hasNextLine()) {
-                String nextLine = sc.nextLine();
-                if (nextLine.contains("$startModule$(\"module_")) {
-                    if (first) {
-                        first = false;
-                    } else {
-                        engine.eval(eval.toString());
-                        eval.setLength(0);
-                    }
-                } else {
-                    eval.append(nextLine).append('\n');
+    private boolean loadPlugin(LoadedPlugins loaded, String name, Path pluginDir) throws Exception {
+        EventListenerPipelineSet registry = loaded.getRegistry();
+        Set<EventListener<?>> previous = Sets.newIdentityHashSet();
+        for (EventListenerPipeline<?> pipeline : registry) {
+            for (EventListener<?> listener : pipeline) {
+                if (name.equals(listener.getPlugin())) {
+                    previous.add(listener);
+                }
+            }
+        }
+
+        Object bootstrap = loaded.getBootstrap();
+        ClassLoader loader = new URLClassLoader(new URL[]{pluginDir.toUri().toURL()}, loaded.getBootstrapLoader());
+        registry.setPlugin(name);
+        try {
+            loader.loadClass(pluginPackage(name) + ".Plugin").getConstructor(bootstrap.getClass()).
+                newInstance(bootstrap);
+        } catch (InvocationTargetException e) {
+            LOGGER.error("Plugin file {} failed to load.", name, e.getCause());
+            registry.removeIf(listener -> name.equals(listener.getPlugin()) && !previous.contains(listener));
+            return false;
+        } finally {
+            registry.setPlugin(null);
+        }
+
+        registry.removeIf(previous::contains);
+        loaded.getPluginDirs().put(name, pluginDir);
+        return true;
+    }
+
+    /**
+     * Deletes cached classes that aren't in {@code keep}.
+     */
+    private void deleteUnused(Set<Path> keep) throws IOException {
+        try (DirectoryStream<Path> cached = Files.newDirectoryStream(cacheDir)) {
+            for (Path path : cached) {
+                if (!keep.contains(path)) {
+                    MoreFiles.deleteRecursively(path, RecursiveDeleteOption.ALLOW_INSECURE);
                 }
             }
-            engine.eval(eval.toString());
         }
     }
 
     /**
-     * Evaluates the rest of the normal plugins.
+     * Returns the import statements of the bootstrap, joined into one line.
+     */
+    private String bootstrapImports(String bootstrap) {
+        StringBuilder imports = new StringBuilder();
+        for (String line : bootstrap.split("\\R")) {
+            if (line.startsWith("import ")) {
+                imports.append(line).append("; ");
+            }
+        }
+        return imports.toString();
+    }
+
+    /**
+     * Wraps the bootstrap in a class, keeping its first line on the first line so that compile errors point at
+     * the right line.
+     */
+    private String wrapBootstrap(String bootstrap) {
+        return "package " + BOOTSTRAP_PACKAGE + "; " +
+            "class Bootstrap($context$: Any, $logger$: Any, $pipelines$: Any) { " + bootstrap + "\n}\n";
+    }
+
+    /**
+     * Wraps a plugin in a class that imports the bootstrap's members and imports, keeping its first line on the
+     * first line so that compile errors point at the right line.
+     */
+    private String wrapPlugin(String name, String plugin, String bootstrapImports) {
+        return "package " + pluginPackage(name) + "; " + bootstrapImports +
+            "class Plugin($bootstrap$: " + BOOTSTRAP_PACKAGE + ".Bootstrap) { import $bootstrap$._; " + plugin +
+            "\n}\n";
+    }
+
+    /**
+     * Returns the package that the plugin file {@code name} is compiled into.
+     */
+    private String pluginPackage(String name) {
+        return PLUGIN_PACKAGE + "." + name.substring(0, name.length() - ".scala".length()).
+            replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    /**
+     * Returns a hash of the server classes that plugins are compiled against, so that plugins are recompiled
+     * whenever the server is rebuilt.
      */
-    private void initPlugins() throws Exception {
-        for (Entry<String, String> fileEntry : files.entrySet()) {
-            currentFile.set(fileEntry.getKey());
-            engine.eval(fileEntry.getValue());
+    private HashCode fingerprintServer() throws Exception {
+        Path codeSource = Paths.get(PluginBootstrap.class.getProtectionDomain().getCodeSource().getLocation().
+            toURI());
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        try (Stream<Path> paths = Files.walk(codeSource)) {
+            paths.filter(Files::isRegularFile).sorted().forEach(path -> {
+                File file = path.toFile();
+                hasher.putString(path.toString(), StandardCharsets.UTF_8).
+                    putLong(file.length()).
+                    putLong(file.lastModified());
+            });
         }
+        return hasher.hash();
     }
 }
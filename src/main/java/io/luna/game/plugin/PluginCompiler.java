@@ -0,0 +1,74 @@
+package io.luna.game.plugin;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import scala.collection.JavaConverters;
+import scala.reflect.internal.util.BatchSourceFile;
+import scala.reflect.internal.util.Position;
+import scala.reflect.internal.util.SourceFile;
+import scala.reflect.io.VirtualFile;
+import scala.tools.nsc.Global;
+import scala.tools.nsc.Settings;
+import scala.tools.nsc.reporters.StoreReporter;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A model that compiles generated plugin sources to class files with the {@code Scala} compiler. Only used when
+ * the plugin cache is stale, so warm boots never load the compiler.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+final class PluginCompiler {
+
+    /**
+     * Compiles {@code sources}, a map of file names to generated source code, into {@code outputDirectory}.
+     * Classes in {@code classpath} are visible to the sources, in addition to the server's own classpath.
+     *
+     * @return The compile errors by file name, empty if every source compiled. Errors without a position are
+     * keyed by {@code "?"}.
+     */
+    public ListMultimap<String, String> compile(Map<String, String> sources, Path outputDirectory,
+                                                List<Path> classpath) {
+        StringBuilder arguments = new StringBuilder("-usejavacp -nowarn -d ").append(outputDirectory);
+        if (!classpath.isEmpty()) {
+            arguments.append(" -classpath ");
+            for (int index = 0; index < classpath.size(); index++) {
+                arguments.append(index == 0 ? "" : File.pathSeparator).append(classpath.get(index));
+            }
+        }
+
+        Settings settings = new Settings();
+        settings.processArgumentString(arguments.toString());
+        StoreReporter reporter = new StoreReporter();
+        Global global = new Global(settings, reporter);
+
+        List<SourceFile> sourceFiles = new ArrayList<>(sources.size());
+        for (Entry<String, String> source : sources.entrySet()) {
+            sourceFiles.add(new BatchSourceFile(new VirtualFile(source.getKey()), source.getValue().toCharArray()));
+        }
+
+        Global.Run run = global.new Run();
+        run.compileSources(JavaConverters.asScalaBuffer(sourceFiles).toList());
+
+        ListMultimap<String, String> errors = ArrayListMultimap.create();
+        if (reporter.hasErrors()) {
+            for (StoreReporter.Info info : JavaConverters.asJavaCollection(reporter.infos())) {
+                if (info.severity() == reporter.ERROR()) {
+                    Position pos = info.pos();
+                    if (pos.isDefined()) {
+                        errors.put(pos.source().file().name(), "line " + pos.line() + ": " + info.msg());
+                    } else {
+                        errors.put("?", info.msg());
+                    }
+                }
+            }
+        }
+        return errors;
+    }
+}
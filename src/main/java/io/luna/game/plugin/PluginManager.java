@@ -2,18 +2,23 @@ package io.luna.game.plugin;
 
 import io.luna.LunaContext;
 import io.luna.game.event.Event;
+import io.luna.game.event.EventListener;
 import io.luna.game.event.EventListenerPipeline;
 import io.luna.game.event.EventListenerPipelineSet;
+import io.luna.util.ExecutionProfile;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * A model that acts as a bridge between interpreted Scala code and compiled Java code.
+ * A model that acts as a bridge between Scala plugin code and Java code.
  *
  * @author lare96 <http://github.org/lare96>
  */
 public final class PluginManager {
 
     /**
-     * A pipeline set containing interpreted Scala code.
+     * A pipeline set containing Scala plugin code.
      */
     private final EventListenerPipelineSet pipelines = new EventListenerPipelineSet();
 
@@ -22,6 +27,11 @@ public final class PluginManager {
      */
     private final LunaContext context;
 
+    /**
+     * The currently loaded plugins, or {@code null} if none have been loaded yet.
+     */
+    private LoadedPlugins loaded;
+
     /**
      * Creates a new {@link PluginManager}.
      *
@@ -43,6 +53,36 @@ public final class PluginManager {
         pipeline.traverse(msg);
     }
 
+    /**
+     * Returns the execution profiles of every listener that has been applied.
+     */
+    public List<ExecutionProfile> getProfiles() {
+        List<ExecutionProfile> profiles = new ArrayList<>();
+        for (EventListenerPipeline<?> pipeline : pipelines) {
+            for (EventListener<?> listener : pipeline) {
+                if (listener.getProfile() != null) {
+                    profiles.add(listener.getProfile());
+                }
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Sets the currently loaded plugins. Must hold this manager's lock.
+     */
+    void setLoaded(LoadedPlugins loaded) {
+        this.loaded = loaded;
+    }
+
+    /**
+     * @return The currently loaded plugins, or {@code null} if none have been loaded yet. Must hold this
+     * manager's lock.
+     */
+    LoadedPlugins getLoaded() {
+        return loaded;
+    }
+
     /**
      * @return The context instance.
      */
@@ -51,7 +91,7 @@ public final class PluginManager {
     }
 
     /**
-     * @return A pipeline set containing interpreted Scala code.
+     * @return A pipeline set containing Scala plugin code.
      */
     public EventListenerPipelineSet getPipelines() {
         return pipelines;
@@ -1,12 +1,17 @@
 package io.luna.game.task;
 
+import io.luna.util.ExecutionProfile;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 
@@ -32,18 +37,20 @@ public final class TaskManager {
      */
     private final Queue<Task> executionQueue = new ArrayDeque<>();
 
+    /**
+     * The execution profiles of every type of task that has been executed, by class name. Tasks created by plugins
+     * are named after the plugin file they were declared in. Classes aren't used as keys, since that would keep the
+     * classes of reloaded plugins from being unloaded.
+     */
+    private final Map<String, ExecutionProfile> profiles = new HashMap<>();
+
     /**
      * Schedules a new task to be ran.
      */
     public void schedule(Task t) {
         t.onSchedule();
         if (t.isInstant()) {
-            try {
-                t.execute();
-            } catch (Exception e) {
-                t.onException(e);
-                LOGGER.catching(e);
-            }
+            execute(t);
         }
         awaitingExecution.add(t);
     }
@@ -71,13 +78,23 @@ public final class TaskManager {
             if (it == null) {
                 break;
             }
+            execute(it);
+        }
+    }
 
-            try {
-                it.execute();
-            } catch (Exception e) {
-                it.onException(e);
-                LOGGER.catching(e);
-            }
+    /**
+     * Executes {@code t}, recording how long it takes in the profile of its type.
+     */
+    private void execute(Task t) {
+        ExecutionProfile profile = profiles.computeIfAbsent(t.getClass().getName(), ExecutionProfile::new);
+        long startTime = System.nanoTime();
+        try {
+            t.execute();
+        } catch (Exception e) {
+            t.onException(e);
+            LOGGER.catching(e);
+        } finally {
+            profile.record(startTime);
         }
     }
 
@@ -88,4 +105,11 @@ public final class TaskManager {
         awaitingExecution.stream().filter(it -> Objects.equals(attachment, it.getAttachment().orElse(null)))
             .forEach(Task::cancel);
     }
+
+    /**
+     * @return The execution profiles of every type of task that has been executed.
+     */
+    public Collection<ExecutionProfile> getProfiles() {
+        return Collections.unmodifiableCollection(profiles.values());
+    }
 }
@@ -17,10 +17,23 @@ public final class LunaNetworkConstants {
     public static final int READ_IDLE_SECONDS = 5;
 
     /**
-     * The maximum amount of incoming messages per cycle.
+     * The maximum amount of incoming messages per cycle. Individual messages can be limited further through
+     * {@code ./data/io/message_limits.json}.
      */
     public static final int MESSAGE_LIMIT = 15;
 
+    /**
+     * The amount of consecutive cycles a channel can stay unwritable before it's disconnected. Non-critical
+     * messages are shed or coalesced while a channel is unwritable.
+     */
+    public static final int UNWRITABLE_CYCLE_LIMIT = 10;
+
+    /**
+     * The maximum amount of pending outbound bytes per session, as a multiple of the high write buffer water
+     * mark. Sessions exceeding this budget are disconnected immediately.
+     */
+    public static final int OUTBOUND_BUDGET_FACTOR = 4;
+
     /**
      * A list of exceptions that are ignored when received from Netty.
      */
@@ -92,6 +92,16 @@ public final class ByteMessage extends DefaultByteBufHolder {
         this.type = type;
     }
 
+    @Override
+    public ByteMessage retainedDuplicate() {
+        return replace(buf.retainedDuplicate());
+    }
+
+    @Override
+    public ByteMessage replace(ByteBuf content) {
+        return new ByteMessage(content, opcode, type);
+    }
+
     /**
      * Prepares the buffer for writing bits.
      */
@@ -279,4 +279,28 @@ public final class IsaacCipher {
         return results[count];
     }
 
+    /**
+     * Fills {@code dest} with the next {@code length} random values starting at {@code offset}. The values are
+     * identical to those that {@code length} calls to {@code nextInt()} would return, but are copied out of the
+     * results array in blocks.
+     *
+     * @param dest The array to fill.
+     * @param offset The starting offset.
+     * @param length The amount of values.
+     */
+    public void nextInts(int[] dest, int offset, int length) {
+        int end = offset + length;
+        while (offset < end) {
+            if (count == 0) {
+                isaac();
+                count = SIZE;
+            }
+
+            int amount = Math.min(count, end - offset);
+            for (int i = 0; i < amount; i++) {
+                dest[offset++] = results[--count];
+            }
+        }
+    }
+
 }
\ No newline at end of file
@@ -40,6 +40,11 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
      */
     private final MessageRepository messageRepository;
 
+    /**
+     * The per-opcode rate limiter.
+     */
+    private final MessageRateLimiter rateLimiter;
+
     /**
      * The current state.
      */
@@ -60,6 +65,11 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
      */
     private MessageType type = MessageType.RAW;
 
+    /**
+     * If the current message exceeded its rate limit and is being discarded.
+     */
+    private boolean dropping;
+
     /**
      * The decoded message.
      */
@@ -74,6 +84,7 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
     public GameMessageDecoder(IsaacCipher decryptor, MessageRepository messageRepository) {
         this.decryptor = decryptor;
         this.messageRepository = messageRepository;
+        rateLimiter = new MessageRateLimiter(messageRepository);
     }
 
     @Override
@@ -103,6 +114,7 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
             opcode = in.readUnsignedByte();
             opcode = (opcode - decryptor.nextInt()) & 0xFF;
             size = messageRepository.getSize(opcode);
+            dropping = !rateLimiter.tryAcquire(opcode);
 
             if (size == -1) {
                 type = MessageType.VAR;
@@ -142,6 +154,12 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
      */
     private void payload(ByteBuf in) {
         if (in.isReadable(size)) {
+            if (dropping) {
+                in.skipBytes(size);
+                queueMsg(Unpooled.EMPTY_BUFFER);
+                return;
+            }
+
             ByteBuf newBuffer = in.readBytes(size);
             try {
                 queueMsg(newBuffer);
@@ -161,6 +179,12 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
         checkState(!currentMessage.isPresent(), "message already in queue");
 
         try {
+            if (dropping) {
+                LOGGER.debug("Dropped rate limited message [opcode={}]", box(opcode));
+                currentMessage = Optional.empty();
+                return;
+            }
+
             if (messageRepository.getHandler(opcode) == null) {
                 LOGGER.debug("No InboundGameMessage assigned to [opcode={}]", box(opcode));
                 currentMessage = Optional.empty();
@@ -174,12 +198,20 @@ public final class GameMessageDecoder extends ByteToMessageDecoder {
         }
     }
 
+    /**
+     * @return The per-opcode rate limiter.
+     */
+    public MessageRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     /**
      * Resets the decoder's state.
      */
     private void resetState() {
         opcode = -1;
         size = -1;
+        dropping = false;
         state = State.OPCODE;
     }
 
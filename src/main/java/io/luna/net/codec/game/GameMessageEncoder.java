@@ -3,22 +3,29 @@ package io.luna.net.codec.game;
 import io.luna.net.codec.IsaacCipher;
 import io.luna.net.codec.MessageType;
 import io.luna.net.msg.GameMessage;
+import io.luna.net.msg.GameMessageBatch;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
- * A {@link MessageToByteEncoder} implementation that encodes game messages.
+ * A {@link MessageToByteEncoder} implementation that encodes game messages. Both single messages and entire
+ * {@link GameMessageBatch}es are accepted; batches are encoded into one buffer with a single keystream fetch.
  *
  * @author lare96 <http://github.org/lare96>
  */
-public final class GameMessageEncoder extends MessageToByteEncoder<GameMessage> {
+public final class GameMessageEncoder extends MessageToByteEncoder<Object> {
 
     /**
      * The encryptor.
      */
     private final IsaacCipher encryptor;
 
+    /**
+     * A reusable array of opcode keys for batches.
+     */
+    private int[] keys = new int[64];
+
     /**
      * Creates a new {@link GameMessageEncoder}.
      *
@@ -29,15 +36,84 @@ public final class GameMessageEncoder extends MessageToByteEncoder<GameMessage>
     }
 
     @Override
-    public void encode(ChannelHandlerContext ctx, GameMessage msg, ByteBuf out) throws Exception {
-        out.writeByte(msg.getOpcode() + encryptor.nextInt());
+    public boolean acceptOutboundMessage(Object msg) throws Exception {
+        return msg instanceof GameMessage || msg instanceof GameMessageBatch;
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object msg, boolean preferDirect) throws Exception {
+        int size;
+        if (msg instanceof GameMessageBatch) {
+            GameMessageBatch batch = (GameMessageBatch) msg;
+            size = 0;
+            for (int index = 0; index < batch.size(); index++) {
+                size += encodedSize(batch.get(index));
+            }
+        } else {
+            size = encodedSize((GameMessage) msg);
+        }
+        return preferDirect ? ctx.alloc().ioBuffer(size) : ctx.alloc().heapBuffer(size);
+    }
+
+    @Override
+    public void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        if (msg instanceof GameMessageBatch) {
+            encodeBatch((GameMessageBatch) msg, out);
+        } else {
+            GameMessage gameMsg = (GameMessage) msg;
+            encodeMessage(gameMsg, encryptor.nextInt(), out);
+            gameMsg.getPayload().release();
+        }
+    }
+
+    /**
+     * Encodes every message in {@code batch}, fetching all opcode keys at once.
+     */
+    private void encodeBatch(GameMessageBatch batch, ByteBuf out) {
+        int size = batch.size();
+        if (keys.length < size) {
+            keys = new int[Math.max(size, keys.length * 2)];
+        }
+        encryptor.nextInts(keys, 0, size);
+
+        int index = 0;
+        try {
+            while (index < size) {
+                GameMessage msg = batch.get(index);
+                encodeMessage(msg, keys[index], out);
+
+                index++;
+                msg.getPayload().release();
+            }
+        } finally {
+            batch.release(index);
+        }
+    }
+
+    /**
+     * Writes the header and payload of {@code msg} to {@code out}, encrypting the opcode with {@code key}.
+     */
+    private void encodeMessage(GameMessage msg, int key, ByteBuf out) {
+        out.writeByte(msg.getOpcode() + key);
         if (msg.getType() == MessageType.VAR) {
             out.writeByte(msg.getSize());
         } else if (msg.getType() == MessageType.VAR_SHORT) {
             out.writeShort(msg.getSize());
         }
-        out.writeBytes(msg.getPayload().getBuffer());
+        ByteBuf payload = msg.getPayload().getBuffer();
+        out.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+    }
 
-        msg.getPayload().release();
+    /**
+     * Computes the amount of bytes {@code msg} will occupy once encoded.
+     */
+    private int encodedSize(GameMessage msg) {
+        int header = 1;
+        if (msg.getType() == MessageType.VAR) {
+            header += Byte.BYTES;
+        } else if (msg.getType() == MessageType.VAR_SHORT) {
+            header += Short.BYTES;
+        }
+        return header + msg.getSize();
     }
 }
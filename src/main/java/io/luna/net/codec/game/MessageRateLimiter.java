@@ -0,0 +1,96 @@
+package io.luna.net.codec.game;
+
+import io.luna.net.msg.MessageRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A model that applies per-opcode token bucket rate limits to a single session's incoming packets. Buckets are
+ * refilled lazily based on elapsed time, so no work is done for opcodes that aren't being received.
+ * <p>
+ * Token amounts are stored as fixed-point values where one token equals {@code CYCLE_NANOS} units, which allows
+ * fractional refills without floating point arithmetic.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class MessageRateLimiter {
+
+    /**
+     * The length of one game cycle, in nanoseconds.
+     */
+    private static final long CYCLE_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+
+    /**
+     * The message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * The available tokens, per opcode.
+     */
+    private final long[] tokens = new long[257];
+
+    /**
+     * The timestamps of the last refills, per opcode.
+     */
+    private final long[] lastRefills = new long[257];
+
+    /**
+     * The amount of packets dropped for this session.
+     */
+    private long violations;
+
+    /**
+     * Creates a new {@link MessageRateLimiter}.
+     *
+     * @param messageRepository The message repository.
+     */
+    public MessageRateLimiter(MessageRepository messageRepository) {
+        this.messageRepository = messageRepository;
+
+        long now = System.nanoTime();
+        for (int opcode = 0; opcode < tokens.length; opcode++) {
+            tokens[opcode] = messageRepository.getRateCapacity(opcode) * CYCLE_NANOS;
+            lastRefills[opcode] = now;
+        }
+    }
+
+    /**
+     * Attempts to take a token for {@code opcode}, returning {@code false} if the packet should be dropped.
+     */
+    public boolean tryAcquire(int opcode) {
+        return tryAcquire(opcode, System.nanoTime());
+    }
+
+    /**
+     * Attempts to take a token for {@code opcode} at the timestamp {@code now}, returning {@code false} if the
+     * packet should be dropped.
+     */
+    public boolean tryAcquire(int opcode, long now) {
+        int capacity = messageRepository.getRateCapacity(opcode);
+        if (capacity == 0) {
+            return true;
+        }
+
+        long elapsed = now - lastRefills[opcode];
+        long refilled = tokens[opcode] + elapsed * messageRepository.getRateRefill(opcode);
+        long available = Math.min(refilled, capacity * CYCLE_NANOS);
+        lastRefills[opcode] = now;
+
+        if (available < CYCLE_NANOS) {
+            tokens[opcode] = available;
+            violations++;
+            messageRepository.recordRateViolation(opcode);
+            return false;
+        }
+        tokens[opcode] = available - CYCLE_NANOS;
+        return true;
+    }
+
+    /**
+     * @return The amount of packets dropped for this session.
+     */
+    public long getViolations() {
+        return violations;
+    }
+}
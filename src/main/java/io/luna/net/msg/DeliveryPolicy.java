@@ -0,0 +1,26 @@
+package io.luna.net.msg;
+
+/**
+ * An enum representing how outgoing game packets are treated while a client isn't keeping up with the data
+ * being written to it.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public enum DeliveryPolicy {
+
+    /**
+     * The packet is always written. Used for anything the client needs to stay in sync with the server.
+     */
+    CRITICAL,
+
+    /**
+     * Only the most recently queued packet with the same opcode is written. Used for packets that overwrite a
+     * single value on the client.
+     */
+    COALESCE,
+
+    /**
+     * The packet is discarded. Used for cosmetic packets that can be lost without consequence.
+     */
+    SHED
+}
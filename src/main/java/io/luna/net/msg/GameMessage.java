@@ -33,19 +33,37 @@ public final class GameMessage {
     private final ByteMessage payload;
 
     /**
-     * Creates a new {@link GameMessage}.
+     * The delivery policy.
+     */
+    private final DeliveryPolicy deliveryPolicy;
+
+    /**
+     * Creates a new {@link GameMessage} with a critical delivery policy.
      *
      * @param opcode The opcode.
      * @param type The message type.
      * @param payload The payload.
      */
     public GameMessage(int opcode, MessageType type, ByteMessage payload) {
+        this(opcode, type, payload, DeliveryPolicy.CRITICAL);
+    }
+
+    /**
+     * Creates a new {@link GameMessage}.
+     *
+     * @param opcode The opcode.
+     * @param type The message type.
+     * @param payload The payload.
+     * @param deliveryPolicy The delivery policy.
+     */
+    public GameMessage(int opcode, MessageType type, ByteMessage payload, DeliveryPolicy deliveryPolicy) {
         checkArgument(opcode >= 0, "opcode < 0");
         checkArgument(type != MessageType.RAW, "type == MessageType.RAW");
 
         this.opcode = opcode;
         this.type = type;
         this.payload = payload;
+        this.deliveryPolicy = deliveryPolicy;
         size = payload.getBuffer().readableBytes();
     }
 
@@ -76,4 +94,11 @@ public final class GameMessage {
     public ByteMessage getPayload() {
         return payload;
     }
+
+    /**
+     * @return The delivery policy.
+     */
+    public DeliveryPolicy getDeliveryPolicy() {
+        return deliveryPolicy;
+    }
 }
@@ -0,0 +1,51 @@
+package io.luna.net.msg;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A model representing all outgoing packets queued for a session within a single cycle. Batches are written to
+ * the channel as one object so they can be encoded in one pass.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class GameMessageBatch {
+
+    /**
+     * The messages.
+     */
+    private final GameMessage[] messages;
+
+    /**
+     * Creates a new {@link GameMessageBatch}.
+     *
+     * @param messages The messages.
+     */
+    public GameMessageBatch(GameMessage[] messages) {
+        checkArgument(messages.length > 0, "messages.length == 0");
+        this.messages = messages;
+    }
+
+    /**
+     * Retrieves the message at {@code index}.
+     */
+    public GameMessage get(int index) {
+        return messages[index];
+    }
+
+    /**
+     * Releases the payloads of all messages starting at {@code fromIndex}. Reference counts can't be used to
+     * determine what was already released, because shared payloads have a reference count greater than one.
+     */
+    public void release(int fromIndex) {
+        for (int index = fromIndex; index < messages.length; index++) {
+            messages[index].getPayload().release();
+        }
+    }
+
+    /**
+     * @return The amount of messages.
+     */
+    public int size() {
+        return messages.length;
+    }
+}
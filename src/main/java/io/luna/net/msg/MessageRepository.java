@@ -4,6 +4,10 @@ import io.luna.game.event.Event;
 import io.luna.game.model.mob.Player;
 import io.luna.util.ThreadUtils;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * A model containing data describing incoming game packets.
  *
@@ -31,6 +35,21 @@ public final class MessageRepository {
      */
     private final MessageReader[] messageReaders = new MessageReader[257];
 
+    /**
+     * The incoming packet rate limit capacities. A capacity of {@code 0} means the packet is not limited.
+     */
+    private final int[] rateCapacities = new int[257];
+
+    /**
+     * The incoming packet rate limit refill amounts, per cycle.
+     */
+    private final int[] rateRefills = new int[257];
+
+    /**
+     * The amount of incoming packets dropped for exceeding their rate limit, across every session.
+     */
+    private final AtomicLongArray rateViolations = new AtomicLongArray(257);
+
     /**
      * Creates a new {@link MessageRepository}.
      */
@@ -54,6 +73,25 @@ public final class MessageRepository {
         }
     }
 
+    /**
+     * Adds a token bucket rate limit to an incoming packet.
+     */
+    public void addRateLimit(int opcode, int capacity, int refill) {
+        ThreadUtils.ensureInitThread();
+        checkArgument(capacity > 0, "capacity <= 0");
+        checkArgument(refill > 0, "refill <= 0");
+
+        rateCapacities[opcode] = capacity;
+        rateRefills[opcode] = refill;
+    }
+
+    /**
+     * Records that an incoming packet was dropped for exceeding its rate limit.
+     */
+    public void recordRateViolation(int opcode) {
+        rateViolations.incrementAndGet(opcode);
+    }
+
     /**
      * Retrieves an incoming packet's size.
      */
@@ -67,4 +105,26 @@ public final class MessageRepository {
     public MessageReader getHandler(int opcode) {
         return messageReaders[opcode];
     }
+
+    /**
+     * Retrieves an incoming packet's rate limit capacity.
+     */
+    public int getRateCapacity(int opcode) {
+        return rateCapacities[opcode];
+    }
+
+    /**
+     * Retrieves an incoming packet's rate limit refill amount.
+     */
+    public int getRateRefill(int opcode) {
+        return rateRefills[opcode];
+    }
+
+    /**
+     * Retrieves the amount of times an incoming packet was dropped for exceeding its rate limit, across every
+     * session.
+     */
+    public long getRateViolations(int opcode) {
+        return rateViolations.get(opcode);
+    }
 }
@@ -20,6 +20,13 @@ public abstract class MessageWriter {
      */
     public GameMessage handleOutboundMessage(Player player) {
         ByteMessage msg = write(player);
-        return new GameMessage(msg.getOpcode(), msg.getType(), msg);
+        return new GameMessage(msg.getOpcode(), msg.getType(), msg, getDeliveryPolicy());
+    }
+
+    /**
+     * Returns how this message is treated when the client isn't keeping up. Messages are critical by default.
+     */
+    public DeliveryPolicy getDeliveryPolicy() {
+        return DeliveryPolicy.CRITICAL;
     }
 }
@@ -3,6 +3,7 @@ package io.luna.net.msg.out;
 import io.luna.game.model.mob.Player;
 import io.luna.net.codec.ByteMessage;
 import io.luna.net.codec.ByteOrder;
+import io.luna.net.msg.DeliveryPolicy;
 import io.luna.net.msg.MessageWriter;
 
 /**
@@ -32,4 +33,9 @@ public final class MusicMessageWriter extends MessageWriter {
         msg.putShort(id, ByteOrder.LITTLE);
         return msg;
     }
+
+    @Override
+    public DeliveryPolicy getDeliveryPolicy() {
+        return DeliveryPolicy.SHED;
+    }
 }
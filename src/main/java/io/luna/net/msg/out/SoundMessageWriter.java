@@ -2,6 +2,7 @@ package io.luna.net.msg.out;
 
 import io.luna.game.model.mob.Player;
 import io.luna.net.codec.ByteMessage;
+import io.luna.net.msg.DeliveryPolicy;
 import io.luna.net.msg.MessageWriter;
 
 /**
@@ -56,4 +57,9 @@ public final class SoundMessageWriter extends MessageWriter {
         msg.putShort(delay);
         return msg;
     }
+
+    @Override
+    public DeliveryPolicy getDeliveryPolicy() {
+        return DeliveryPolicy.SHED;
+    }
 }
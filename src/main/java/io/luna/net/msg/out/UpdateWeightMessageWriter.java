@@ -2,6 +2,7 @@ package io.luna.net.msg.out;
 
 import io.luna.game.model.mob.Player;
 import io.luna.net.codec.ByteMessage;
+import io.luna.net.msg.DeliveryPolicy;
 import io.luna.net.msg.MessageWriter;
 
 /**
@@ -31,4 +32,9 @@ public final class UpdateWeightMessageWriter extends MessageWriter {
         msg.putShort(weight);
         return msg;
     }
+
+    @Override
+    public DeliveryPolicy getDeliveryPolicy() {
+        return DeliveryPolicy.COALESCE;
+    }
 }
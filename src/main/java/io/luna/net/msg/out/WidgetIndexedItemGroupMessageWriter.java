@@ -0,0 +1,88 @@
+package io.luna.net.msg.out;
+
+import io.luna.game.model.mob.Player;
+import io.luna.net.codec.ByteMessage;
+import io.luna.net.codec.MessageType;
+import io.luna.net.msg.MessageWriter;
+
+/**
+ * A {@link MessageWriter} implementation that displays items on specific indexes of a widget, leaving every
+ * other index untouched.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class WidgetIndexedItemGroupMessageWriter extends MessageWriter {
+
+    /**
+     * Returns the amount of bytes {@code index} holding {@code amount} of an item takes up in this message.
+     */
+    public static int sizeOf(int index, int amount) {
+        return (index < 128 ? 1 : 2) + 2 + (amount >= 255 ? 5 : 1);
+    }
+
+    /**
+     * The widget identifier.
+     */
+    private final int id;
+
+    /**
+     * The widget indexes.
+     */
+    private final int[] indexes;
+
+    /**
+     * The item identifiers, parallel to the indexes.
+     */
+    private final int[] ids;
+
+    /**
+     * The item amounts, parallel to the indexes, where {@code 0} marks an empty index.
+     */
+    private final int[] amounts;
+
+    /**
+     * Creates a new {@link WidgetIndexedItemGroupMessageWriter}.
+     *
+     * @param id The widget identifier.
+     * @param indexes The widget indexes.
+     * @param ids The item identifiers, parallel to the indexes.
+     * @param amounts The item amounts, parallel to the indexes, where {@code 0} marks an empty index.
+     */
+    public WidgetIndexedItemGroupMessageWriter(int id, int[] indexes, int[] ids, int[] amounts) {
+        this.id = id;
+        this.indexes = indexes;
+        this.ids = ids;
+        this.amounts = amounts;
+    }
+
+    @Override
+    public ByteMessage write(Player player) {
+        ByteMessage msg = ByteMessage.message(34, MessageType.VAR_SHORT);
+        msg.putShort(id);
+
+        for (int slot = 0; slot < indexes.length; slot++) {
+            int index = indexes[slot];
+            if (index < 128) {
+                msg.put(index);
+            } else {
+                msg.putShort(index + 32768);
+            }
+
+            int amount = amounts[slot];
+            if (amount == 0) {
+                msg.putShort(0);
+                msg.put(0);
+                continue;
+            }
+
+            msg.putShort(ids[slot] + 1);
+            if (amount >= 255) {
+                msg.put(255);
+                msg.putInt(amount);
+            } else {
+                msg.put(amount);
+            }
+        }
+        return msg;
+    }
+}
@@ -18,7 +18,12 @@ import java.util.Collection;
  */
 public final class WidgetItemGroupMessageWriter extends MessageWriter {
 
-    /* TODO support for the indexed version of this? */
+    /**
+     * Returns the amount of bytes an index holding {@code amount} of an item takes up in this message.
+     */
+    public static int sizeOf(int amount) {
+        return amount >= 255 ? 7 : 3;
+    }
 
     /**
      * The widget identifier.
@@ -26,9 +31,27 @@ public final class WidgetItemGroupMessageWriter extends MessageWriter {
     private final int id;
 
     /**
-     * The items.
+     * The item identifiers.
+     */
+    private final int[] ids;
+
+    /**
+     * The item amounts, where {@code 0} marks an empty index.
      */
-    private final Collection<? extends Item> items;
+    private final int[] amounts;
+
+    /**
+     * Creates a new {@link WidgetItemGroupMessageWriter}.
+     *
+     * @param id The widget identifier.
+     * @param ids The item identifiers.
+     * @param amounts The item amounts, where {@code 0} marks an empty index.
+     */
+    public WidgetItemGroupMessageWriter(int id, int[] ids, int[] amounts) {
+        this.id = id;
+        this.ids = ids;
+        this.amounts = amounts;
+    }
 
     /**
      * Creates a new {@link WidgetItemGroupMessageWriter}.
@@ -38,7 +61,17 @@ public final class WidgetItemGroupMessageWriter extends MessageWriter {
      */
     public WidgetItemGroupMessageWriter(int id, Collection<? extends Item> items) {
         this.id = id;
-        this.items = items;
+        ids = new int[items.size()];
+        amounts = new int[items.size()];
+
+        int index = 0;
+        for (Item item : items) {
+            if (item != null) {
+                ids[index] = item.getId();
+                amounts[index] = item.getAmount();
+            }
+            index++;
+        }
     }
 
     /**
@@ -55,22 +88,23 @@ public final class WidgetItemGroupMessageWriter extends MessageWriter {
     public ByteMessage write(Player player) {
         ByteMessage msg = ByteMessage.message(53, MessageType.VAR_SHORT);
         msg.putShort(id);
-        msg.putShort(items.size());
+        msg.putShort(ids.length);
 
-        for (Item item : items) {
-            if (item == null) {
+        for (int index = 0; index < ids.length; index++) {
+            int amount = amounts[index];
+            if (amount == 0) {
                 msg.put(0);
                 msg.putShort(0, ByteTransform.A, ByteOrder.LITTLE);
                 continue;
             }
 
-            if (item.getAmount() >= 255) {
+            if (amount >= 255) {
                 msg.put(255);
-                msg.putInt(item.getAmount(), ByteOrder.INVERSE_MIDDLE);
+                msg.putInt(amount, ByteOrder.INVERSE_MIDDLE);
             } else {
-                msg.put(item.getAmount());
+                msg.put(amount);
             }
-            msg.putShort(item.getId() + 1, ByteTransform.A, ByteOrder.LITTLE);
+            msg.putShort(ids[index] + 1, ByteTransform.A, ByteOrder.LITTLE);
         }
         return msg;
     }
@@ -45,7 +45,11 @@ public final class WidgetItemMessageWriter extends MessageWriter {
     public ByteMessage write(Player player) {
         ByteMessage msg = ByteMessage.message(34, MessageType.VAR_SHORT);
         msg.putShort(id);
-        msg.put(index);
+        if (index < 128) {
+            msg.put(index);
+        } else {
+            msg.putShort(index + 32768);
+        }
 
         if (item == null) {
             msg.putShort(0);
@@ -55,7 +59,7 @@ public final class WidgetItemMessageWriter extends MessageWriter {
 
             if (item.getAmount() > 254) {
                 msg.put(255);
-                msg.putShort(item.getAmount());
+                msg.putInt(item.getAmount());
             } else {
                 msg.put(item.getAmount());
             }
@@ -1,16 +1,31 @@
 package io.luna.net.session;
 
+import io.luna.LunaConstants;
 import io.luna.game.model.mob.Player;
 import io.luna.net.LunaNetworkConstants;
+import io.luna.net.codec.ByteMessage;
 import io.luna.net.codec.IsaacCipher;
+import io.luna.net.codec.game.GameMessageDecoder;
+import io.luna.net.msg.DeliveryPolicy;
 import io.luna.net.msg.GameMessage;
+import io.luna.net.msg.GameMessageBatch;
 import io.luna.net.msg.MessageReader;
 import io.luna.net.msg.MessageRepository;
 import io.luna.net.msg.MessageWriter;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 /**
  * A {@link Session} implementation that handles gameplay networking.
@@ -19,6 +34,17 @@ import java.util.concurrent.ArrayBlockingQueue;
  */
 public final class GameSession extends Session {
 
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The maximum amount of pending outbound bytes before a session is disconnected.
+     */
+    private static final long OUTBOUND_BUDGET = (long) LunaConstants.WRITE_BUFFER_HIGH_WATER_MARK *
+        LunaNetworkConstants.OUTBOUND_BUDGET_FACTOR;
+
     /**
      * The player.
      */
@@ -44,6 +70,31 @@ public final class GameSession extends Session {
      */
     private final Queue<GameMessage> inboundQueue = new ArrayBlockingQueue<>(LunaNetworkConstants.MESSAGE_LIMIT);
 
+    /**
+     * An unbounded queue of game packets awaiting the next flush.
+     */
+    private final Queue<GameMessage> outboundQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * A reusable list of game packets being drained for a flush.
+     */
+    private final List<GameMessage> pendingFlush = new ArrayList<>();
+
+    /**
+     * A reusable table of coalesced opcodes seen while shedding messages.
+     */
+    private final boolean[] coalescedOpcodes = new boolean[256];
+
+    /**
+     * The amount of consecutive cycles the channel has been unwritable.
+     */
+    private int unwritableCycles;
+
+    /**
+     * The amount of messages shed or coalesced away for this session.
+     */
+    private long shedMessages;
+
     /**
      * Creates a new {@link GameSession}.
      *
@@ -63,7 +114,17 @@ public final class GameSession extends Session {
 
     @Override
     public void onDispose() {
-        player.getWorld().queueLogout(player);
+        GameMessageDecoder decoder = getChannel().pipeline().get(GameMessageDecoder.class);
+        if (decoder != null) {
+            long violations = decoder.getRateLimiter().getViolations();
+            if (violations > 0) {
+                LOGGER.warn("{} dropped {} rate limited messages.", player, box(violations));
+            }
+        }
+
+        if (player.getSession() == this) { /* Ignore sessions that were replaced by a resumed one. */
+            player.getWorld().linger(player);
+        }
     }
 
     @Override
@@ -74,25 +135,109 @@ public final class GameSession extends Session {
     }
 
     /**
-     * Writes a message to the underlying channel; The channel is not flushed.
+     * Queues a message to be written on the next flush.
      */
     public void queue(MessageWriter msg) {
         Channel channel = getChannel();
 
         if (channel.isActive()) {
-            channel.write(msg.handleOutboundMessage(player), channel.voidPromise());
+            outboundQueue.offer(msg.handleOutboundMessage(player));
         }
     }
 
     /**
-     * Flushes the underlying channel.
+     * Queues a message that was encoded once and is shared between many sessions to be written on the next flush.
+     * A retained duplicate is queued so that every session keeps its own reader index, and the opcode is still
+     * encrypted separately by each session's encoder.
      */
-    public void flush() {
+    public void queueShared(ByteMessage msg, DeliveryPolicy deliveryPolicy) {
         Channel channel = getChannel();
 
         if (channel.isActive()) {
-            channel.flush();
+            ByteMessage duplicate = msg.retainedDuplicate();
+            outboundQueue.offer(new GameMessage(duplicate.getOpcode(), duplicate.getType(), duplicate,
+                deliveryPolicy));
+        }
+    }
+
+    /**
+     * Writes all queued messages to the underlying channel as a single {@link GameMessageBatch} and flushes it.
+     * Queued messages are released instead if the channel is no longer active.
+     * <p>
+     * While the channel is above its high write buffer water mark, non-critical messages are shed or coalesced.
+     * The client is disconnected if it stays unwritable for too long or exceeds its outbound byte budget, so that
+     * one stuck client can't keep growing its share of pooled direct memory.
+     */
+    public void flush() {
+        for (; ; ) {
+            GameMessage msg = outboundQueue.poll();
+            if (msg == null) {
+                break;
+            }
+            pendingFlush.add(msg);
+        }
+
+        Channel channel = getChannel();
+        if (!channel.isActive()) {
+            releasePending();
+            return;
         }
+
+        if (channel.isWritable()) {
+            unwritableCycles = 0;
+        } else if (++unwritableCycles >= LunaNetworkConstants.UNWRITABLE_CYCLE_LIMIT ||
+            getOutboundBacklog() > OUTBOUND_BUDGET) {
+            LOGGER.warn("{} disconnected for not reading outbound data [backlog={}, cycles={}].", player,
+                box(getOutboundBacklog()), box(unwritableCycles));
+            releasePending();
+            channel.close();
+            return;
+        } else {
+            shedPending();
+        }
+
+        if (pendingFlush.isEmpty()) {
+            return;
+        }
+
+        GameMessageBatch batch = new GameMessageBatch(pendingFlush.toArray(new GameMessage[pendingFlush.size()]));
+        pendingFlush.clear();
+        channel.writeAndFlush(batch, channel.voidPromise());
+    }
+
+    /**
+     * Removes shed messages and all but the latest coalesced message of each opcode from the pending flush.
+     */
+    private void shedPending() {
+        Arrays.fill(coalescedOpcodes, false);
+
+        ListIterator<GameMessage> iterator = pendingFlush.listIterator(pendingFlush.size());
+        while (iterator.hasPrevious()) {
+            GameMessage msg = iterator.previous();
+            DeliveryPolicy policy = msg.getDeliveryPolicy();
+
+            boolean shed = policy == DeliveryPolicy.SHED;
+            if (policy == DeliveryPolicy.COALESCE) {
+                shed = coalescedOpcodes[msg.getOpcode()];
+                coalescedOpcodes[msg.getOpcode()] = true;
+            }
+
+            if (shed) {
+                msg.getPayload().release();
+                iterator.remove();
+                shedMessages++;
+            }
+        }
+    }
+
+    /**
+     * Releases and clears every message in the pending flush.
+     */
+    private void releasePending() {
+        for (GameMessage msg : pendingFlush) {
+            msg.getPayload().release();
+        }
+        pendingFlush.clear();
     }
 
     /**
@@ -109,6 +254,42 @@ public final class GameSession extends Session {
         }
     }
 
+    /**
+     * Returns the amount of bytes written to the channel that haven't been flushed to the socket yet.
+     */
+    public long getOutboundBacklog() {
+        ChannelOutboundBuffer buffer = getChannel().unsafe().outboundBuffer();
+        return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+    }
+
+    /**
+     * @return The amount of consecutive cycles the channel has been unwritable.
+     */
+    public int getUnwritableCycles() {
+        return unwritableCycles;
+    }
+
+    /**
+     * @return The amount of messages shed or coalesced away for this session.
+     */
+    public long getShedMessages() {
+        return shedMessages;
+    }
+
+    /**
+     * @return The message repository.
+     */
+    public MessageRepository getMessageRepository() {
+        return messageRepository;
+    }
+
+    /**
+     * @return The player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
     /**
      * @return The encryptor.
      */
@@ -4,6 +4,7 @@ import io.luna.LunaContext;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Player;
 import io.luna.game.model.mob.PlayerCredentials;
+import io.luna.game.model.mob.PlayerRights;
 import io.luna.game.model.mob.PlayerSerializer;
 import io.luna.net.LunaNetworkConstants;
 import io.luna.net.codec.game.GameMessageDecoder;
@@ -17,9 +18,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelPipeline;
 
-import java.time.LocalDate;
 import java.util.Optional;
-import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -70,14 +69,26 @@ public final class LoginSession extends Session {
         Channel channel = getChannel();
         World world = context.getWorld();
         LoginResponse response = LoginResponse.NORMAL;
-        ChannelPipeline pipeline = msg.getPipeline();
 
         String username = msg.getUsername();
         String password = msg.getPassword();
 
         checkState(username.matches("^[a-z0-9_ ]{1,12}$") && !password.isEmpty() && password.length() <= 20);
 
-        Player player = new Player(context, new PlayerCredentials(username, password));
+        if (world.isShuttingDown()) {
+            channel.writeAndFlush(new LoginResponseMessage(LoginResponse.SERVER_BEING_UPDATED, PlayerRights.PLAYER,
+                false)).addListener(ChannelFutureListener.CLOSE);
+            return;
+        }
+
+        PlayerCredentials credentials = new PlayerCredentials(username, password);
+        Optional<Player> lingering = world.getLingering(credentials.getUsernameHash());
+        if (lingering.isPresent()) {
+            handleResume(msg, lingering.get());
+            return;
+        }
+
+        Player player = new Player(context, credentials);
 
         if (world.getPlayers().isFull()) {
             response = LoginResponse.WORLD_FULL;
@@ -99,44 +110,65 @@ public final class LoginSession extends Session {
             future.addListener(ChannelFutureListener.CLOSE);
         } else {
             future.addListener(it -> {
-                pipeline.replace("login-encoder", "game-encoder", new GameMessageEncoder(msg.getEncryptor()));
-                pipeline.replace("login-decoder", "game-decoder",
-                    new GameMessageDecoder(msg.getDecryptor(), messageRepository));
+                player.setSession(initGameSession(msg, player));
+                world.queueLogin(player);
+            });
+        }
+    }
 
-                GameSession session = new GameSession(player, channel, msg.getEncryptor(), msg.getDecryptor(),
-                    messageRepository);
+    /**
+     * Handles the received login credentials of a client reconnecting to a lingering player. The save isn't
+     * loaded, and the player is resumed on the next tick instead of logging in. The same checks as a normal login
+     * apply, except for the world being full, since the lingering player still holds their slot. The player is
+     * still in the world, so only read-only checks are done here, and lifted punishments are cleared on the game
+     * thread when the player is resumed.
+     */
+    private void handleResume(LoginCredentialsMessage msg, Player player) {
+        Channel channel = getChannel();
+        World world = context.getWorld();
+        LoginResponse response = LoginResponse.NORMAL;
 
-                channel.attr(LunaNetworkConstants.SESSION_KEY).set(session);
-                player.setSession(session);
+        if (world.isShuttingDown()) {
+            response = LoginResponse.SERVER_BEING_UPDATED;
+        } else if (!player.getPassword().equals(msg.getPassword())) {
+            response = LoginResponse.INVALID_CREDENTIALS;
+        } else if (player.isBanActive()) {
+            response = LoginResponse.ACCOUNT_BANNED;
+        }
 
-                world.queueLogin(player);
-            });
+        ChannelFuture future = channel.writeAndFlush(new LoginResponseMessage(response, player.getRights(), false));
+        if (response != LoginResponse.NORMAL) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        } else {
+            future.addListener(it -> world.queueResume(initGameSession(msg, player)));
         }
     }
 
+    /**
+     * Switches the pipeline to the game codec and creates a game session for {@code player}.
+     */
+    private GameSession initGameSession(LoginCredentialsMessage msg, Player player) {
+        Channel channel = getChannel();
+        ChannelPipeline pipeline = msg.getPipeline();
+        pipeline.replace("login-encoder", "game-encoder", new GameMessageEncoder(msg.getEncryptor()));
+        pipeline.replace("login-decoder", "game-decoder",
+            new GameMessageDecoder(msg.getDecryptor(), messageRepository));
+
+        GameSession session = new GameSession(player, channel, msg.getEncryptor(), msg.getDecryptor(),
+            messageRepository);
+
+        channel.attr(LunaNetworkConstants.SESSION_KEY).set(session);
+        return session;
+    }
+
     /**
      * Returns an optional describing the result of managing punishments.
      */
     private Optional<LoginResponse> handlePunishments(Player player) {
-        // TODO: Pretty ugly, find a nicer way of doing this?
-        LocalDate now = LocalDate.now();
-        Function<String, LocalDate> computeDate = it -> it.equals("never") ? now.plusYears(1) : LocalDate.parse(it);
-
-        if (player.isBanned()) {
-            LocalDate then = computeDate.apply(player.getUnbanDate());
-            if (now.isBefore(then)) {
-                return Optional.of(LoginResponse.ACCOUNT_BANNED);
-            } else {
-                player.setUnbanDate("n/a");
-            }
-        }
-
-        if (player.isMuted()) {
-            LocalDate then = computeDate.apply(player.getUnmuteDate());
-            if (then.isBefore(now)) {
-                player.setUnbanDate("n/a");
-            }
+        if (player.isBanActive()) {
+            return Optional.of(LoginResponse.ACCOUNT_BANNED);
         }
+        player.clearLiftedPunishments();
         return Optional.empty();
     }
 }
@@ -0,0 +1,131 @@
+package io.luna.util;
+
+import com.google.common.collect.Ordering;
+import io.luna.LunaConstants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A model that records how many times a piece of code was executed and how long it took. Calls that take longer
+ * than {@link LunaConstants#SLOW_EXECUTION_THRESHOLD} are counted as slow, and logged whenever they set a new
+ * maximum. Calls can be recorded from any thread.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class ExecutionProfile {
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The time a call can take before it's considered slow, in nanoseconds.
+     */
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(LunaConstants.SLOW_EXECUTION_THRESHOLD);
+
+    /**
+     * Returns the {@code count} profiles that took the most total time, in descending order.
+     */
+    public static List<ExecutionProfile> top(Iterable<ExecutionProfile> profiles, int count) {
+        return Ordering.from(Comparator.comparingLong(ExecutionProfile::getTotalTime)).greatestOf(profiles, count);
+    }
+
+    /**
+     * The name of the profiled code.
+     */
+    private final String name;
+
+    /**
+     * The amount of calls.
+     */
+    private long calls;
+
+    /**
+     * The amount of slow calls.
+     */
+    private long slowCalls;
+
+    /**
+     * The total time taken by every call, in nanoseconds.
+     */
+    private long totalTime;
+
+    /**
+     * The time taken by the slowest call, in nanoseconds.
+     */
+    private long maxTime;
+
+    /**
+     * Creates a new {@link ExecutionProfile}.
+     *
+     * @param name The name of the profiled code.
+     */
+    public ExecutionProfile(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d calls, %.1f ms total, %.3f ms avg, %.1f ms max, %d slow", name, calls,
+            totalTime / 1e6, calls == 0 ? 0.0 : totalTime / 1e6 / calls, maxTime / 1e6, slowCalls);
+    }
+
+    /**
+     * Records a call that started at {@code startTime}, as returned by {@link System#nanoTime()}.
+     */
+    public synchronized void record(long startTime) {
+        long time = System.nanoTime() - startTime;
+        calls++;
+        totalTime += time;
+        if (time > THRESHOLD && THRESHOLD > 0) {
+            slowCalls++;
+            if (time > maxTime) {
+                LOGGER.warn("{} took {} ms, over the {} ms threshold.", name,
+                    box(TimeUnit.NANOSECONDS.toMillis(time)), box(LunaConstants.SLOW_EXECUTION_THRESHOLD));
+            }
+        }
+        maxTime = Math.max(maxTime, time);
+    }
+
+    /**
+     * @return The name of the profiled code.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The amount of calls.
+     */
+    public synchronized long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return The amount of slow calls.
+     */
+    public synchronized long getSlowCalls() {
+        return slowCalls;
+    }
+
+    /**
+     * @return The total time taken by every call, in nanoseconds.
+     */
+    public synchronized long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return The time taken by the slowest call, in nanoseconds.
+     */
+    public synchronized long getMaxTime() {
+        return maxTime;
+    }
+}
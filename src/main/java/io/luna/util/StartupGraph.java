@@ -0,0 +1,225 @@
+package io.luna.util;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A graph of startup tasks with declared dependencies. Each task runs as soon as all of its dependencies have
+ * completed, so independent tasks run in parallel. The first task to fail fails the entire graph, cancelling
+ * the tasks that haven't run yet. Once every task completes, the time each one took and the critical path (the
+ * chain of tasks that determined the total startup time) are logged.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class StartupGraph {
+
+    /**
+     * A task that may throw any exception, failing the graph.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Runs this task.
+         *
+         * @throws Exception If any errors occur while running.
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * A single task within the graph.
+     */
+    private static final class Node implements Callable<Void> {
+
+        /**
+         * The name.
+         */
+        private final String name;
+
+        /**
+         * The task.
+         */
+        private final Task task;
+
+        /**
+         * The nodes that must complete before this one runs.
+         */
+        private final ImmutableList<Node> dependencies;
+
+        /**
+         * The result, set once the graph is run.
+         */
+        private ListenableFuture<Void> future;
+
+        /**
+         * The time this node started running, in nanoseconds.
+         */
+        private volatile long startTime;
+
+        /**
+         * The time this node finished running, in nanoseconds.
+         */
+        private volatile long endTime;
+
+        /**
+         * Creates a new {@link Node}.
+         *
+         * @param name The name.
+         * @param task The task.
+         * @param dependencies The nodes that must complete before this one runs.
+         */
+        private Node(String name, Task task, ImmutableList<Node> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            startTime = System.nanoTime();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                throw new IllegalStateException("startup task [" + name + "] failed", t);
+            } finally {
+                endTime = System.nanoTime();
+            }
+            return null;
+        }
+
+        /**
+         * @return The time this node took to run, in milliseconds.
+         */
+        private long getDuration() {
+            return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
+        }
+    }
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The nodes, in the order they were added.
+     */
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * The executor that will run tasks.
+     */
+    private final ListeningExecutorService executor;
+
+    /**
+     * If this graph has been run.
+     */
+    private boolean ran;
+
+    /**
+     * Creates a new {@link StartupGraph}.
+     *
+     * @param executor The executor that will run tasks.
+     */
+    public StartupGraph(ListeningExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a task named {@code name} that runs once every task in {@code dependencies} has completed. Dependencies
+     * must be added before their dependents, so the graph can never contain a cycle.
+     */
+    public void add(String name, Task task, String... dependencies) {
+        checkState(!ran, "graph has already been run");
+        checkArgument(!nodes.containsKey(name), "duplicate task [%s]", name);
+
+        ImmutableList.Builder<Node> dependencyNodes = ImmutableList.builder();
+        for (String dependency : dependencies) {
+            Node node = nodes.get(dependency);
+            checkArgument(node != null, "task [%s] depends on unknown task [%s]", name, dependency);
+            dependencyNodes.add(node);
+        }
+        nodes.put(name, new Node(name, task, dependencyNodes.build()));
+    }
+
+    /**
+     * Runs every task and blocks until they've all completed, then logs the timing report. Throws the cause of
+     * the first task to fail as soon as it fails.
+     */
+    public void run() throws Exception {
+        checkState(!ran, "graph has already been run");
+        ran = true;
+
+        long startTime = System.nanoTime();
+        List<ListenableFuture<Void>> futures = new ArrayList<>(nodes.size());
+        for (Node node : nodes.values()) {
+            List<ListenableFuture<Void>> dependencyFutures = new ArrayList<>(node.dependencies.size());
+            for (Node dependency : node.dependencies) {
+                dependencyFutures.add(dependency.future);
+            }
+
+            node.future = Futures.whenAllSucceed(dependencyFutures).call(node, executor);
+            futures.add(node.future);
+        }
+
+        try {
+            Futures.allAsList(futures).get();
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+        report(startTime);
+    }
+
+    /**
+     * Logs the time each task took, and the critical path that determined the total startup time.
+     */
+    private void report(long startTime) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+
+        List<Node> byStart = new ArrayList<>(nodes.values());
+        byStart.sort(Comparator.comparingLong(node -> node.startTime));
+        for (Node node : byStart) {
+            LOGGER.info("Startup task [{}] took {} ms, starting at +{} ms.", node.name, box(node.getDuration()),
+                box(TimeUnit.NANOSECONDS.toMillis(node.startTime - startTime)));
+        }
+
+        /* Walk back from the last task to finish through whichever dependency finished last. */
+        List<Node> criticalPath = new ArrayList<>();
+        Node node = Collections.max(nodes.values(), Comparator.comparingLong(it -> it.endTime));
+        while (node != null) {
+            criticalPath.add(node);
+            node = node.dependencies.isEmpty() ? null :
+                Collections.max(node.dependencies, Comparator.comparingLong(it -> it.endTime));
+        }
+        Collections.reverse(criticalPath);
+
+        StringJoiner path = new StringJoiner(" -> ");
+        criticalPath.forEach(it -> path.add(it.name + " (" + it.getDuration() + " ms)"));
+        LOGGER.info("Startup completed in {} ms, critical path: {}.",
+            box(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)), path);
+    }
+}
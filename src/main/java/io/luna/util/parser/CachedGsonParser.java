@@ -0,0 +1,253 @@
+package io.luna.util.parser;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link GsonParser} that compiles what it parses into a compact binary cache, keyed by a hash of the source
+ * file. While the source file is unchanged, objects are decoded from the memory-mapped cache instead of being
+ * parsed from {@code JSON}. A missing, stale, or unreadable cache falls back to parsing the source file, and is
+ * rewritten afterwards. If any object can't be encoded, the cache is skipped and the source file is parsed on every
+ * start.
+ *
+ * @param <T> The type of {@code Object} being parsed.
+ * @author lare96 <http://github.org/lare96>
+ */
+public abstract class CachedGsonParser<T> extends GsonParser<T> {
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The path to cache files.
+     */
+    private static final Path DIRECTORY = Paths.get("./data/cache");
+
+    /**
+     * The magic number identifying cache files.
+     */
+    private static final int MAGIC = 0x4C444546;
+
+    /**
+     * The cache format version. Must be bumped whenever any parser's encoding changes.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the source file hash, in bytes.
+     */
+    private static final int HASH_SIZE = 16;
+
+    /**
+     * The directory containing cache files.
+     */
+    private final Path directory;
+
+    /**
+     * Creates a new {@link CachedGsonParser}.
+     *
+     * @param paths The paths to the files being parsed.
+     */
+    public CachedGsonParser(String... paths) {
+        this(DIRECTORY, paths);
+    }
+
+    /**
+     * Creates a new {@link CachedGsonParser} that keeps its cache files in a different directory.
+     *
+     * @param directory The directory containing cache files.
+     * @param paths The paths to the files being parsed.
+     */
+    CachedGsonParser(Path directory, String... paths) {
+        super(paths);
+        this.directory = directory;
+    }
+
+    /**
+     * Every parsed object is cached, including those that {@code onRead(T)} doesn't retain, and then passed to
+     * {@code onRead(T)} whether it was decoded from the cache or parsed from the source file.
+     */
+    @Override
+    protected List<T> readFile(Path path) throws Exception {
+        HashCode hash = com.google.common.io.Files.asByteSource(path.toFile()).hash(Hashing.murmur3_128());
+        Path cachePath = directory.resolve(path.getFileName() + ".bin");
+
+        Optional<List<T>> cached = readCache(cachePath, hash);
+        if (cached.isPresent()) {
+            return consume(cached.get());
+        }
+
+        List<T> readObjects = readFile(path, false);
+        try {
+            writeCache(cachePath, hash, readObjects);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write definition cache {} ({}).", cachePath, e.toString());
+        }
+        return consume(readObjects);
+    }
+
+    /**
+     * Decodes every object from the cache at {@code cachePath}, if it was compiled from a source file with
+     * {@code hash}.
+     */
+    private Optional<List<T>> readCache(Path cachePath, HashCode hash) throws Exception {
+        if (Files.notExists(cachePath)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.remaining() < 12 + HASH_SIZE || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                return Optional.empty();
+            }
+
+            byte[] cachedHash = new byte[HASH_SIZE];
+            buf.get(cachedHash);
+            if (!HashCode.fromBytes(cachedHash).equals(hash)) {
+                return Optional.empty();
+            }
+
+            int count = buf.getInt();
+            List<T> readObjects = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                readObjects.add(decode(buf));
+            }
+            if (buf.hasRemaining()) {
+                throw new IOException("trailing bytes");
+            }
+            return Optional.of(readObjects);
+        } catch (IOException | BufferUnderflowException e) {
+            LOGGER.warn("Definition cache {} is unreadable ({}), parsing the source file.", cachePath, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Compiles {@code readObjects} into the cache at {@code cachePath}, replacing it atomically. Nothing is
+     * replaced if any object can't be encoded.
+     */
+    private void writeCache(Path cachePath, HashCode hash, List<T> readObjects) throws IOException {
+        Files.createDirectories(directory);
+
+        Path tempPath = cachePath.resolveSibling(cachePath.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(tempPath)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.write(hash.asBytes());
+                out.writeInt(readObjects.size());
+                for (T obj : readObjects) {
+                    encode(out, obj);
+                }
+            }
+            Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Writes {@code str} as a length-prefixed {@code UTF-8} string of at most {@code 65535} bytes.
+     */
+    protected static void writeString(DataOutput out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        checkArgument(bytes.length <= 0xFFFF, "string is %s bytes, the limit is 65535", bytes.length);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed {@code UTF-8} string.
+     */
+    protected static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes {@code strings} as a count followed by each string, where the count is at most {@code 255}.
+     */
+    protected static void writeStrings(DataOutput out, List<String> strings) throws IOException {
+        checkArgument(strings.size() <= 0xFF, "%s strings, the limit is 255", strings.size());
+        out.writeByte(strings.size());
+        for (String str : strings) {
+            writeString(out, str);
+        }
+    }
+
+    /**
+     * Reads a count followed by that many strings.
+     */
+    protected static String[] readStrings(ByteBuffer buf) {
+        String[] strings = new String[buf.get() & 0xFF];
+        for (int index = 0; index < strings.length; index++) {
+            strings[index] = readString(buf);
+        }
+        return strings;
+    }
+
+    /**
+     * Writes {@code values} as a count followed by each value, where the count is at most {@code 255}.
+     */
+    protected static void writeInts(DataOutput out, List<Integer> values) throws IOException {
+        checkArgument(values.size() <= 0xFF, "%s values, the limit is 255", values.size());
+        out.writeByte(values.size());
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads a count followed by that many values.
+     */
+    protected static int[] readInts(ByteBuffer buf) {
+        int[] values = new int[buf.get() & 0xFF];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = buf.getInt();
+        }
+        return values;
+    }
+
+    /**
+     * Writes {@code obj} to the cache.
+     *
+     * @param out Where the data will be written to.
+     * @param obj The {@code Object} to write.
+     * @throws IOException If any errors occur while writing.
+     */
+    public abstract void encode(DataOutput out, T obj) throws IOException;
+
+    /**
+     * Reads an {@code Object} written by {@code encode(DataOutput, T)} from the cache.
+     *
+     * @param buf Where the data will be read from.
+     * @return The newly created {@code Object} from the read data.
+     */
+    public abstract T decode(ByteBuffer buf);
+}
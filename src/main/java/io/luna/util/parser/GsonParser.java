@@ -1,24 +1,24 @@
 package io.luna.util.parser;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 import java.io.BufferedReader;
 
 /**
- * A {@link Parser} implementation designated for {@code JSON} files.
+ * A {@link Parser} implementation designated for {@code JSON} files. Files are streamed with a {@link JsonReader},
+ * so only the object currently being read is ever held as a tree, no matter how large the file is.
  *
  * @param <T> The type of {@code Object} being parsed.
  * @author lare96 <http://github.org/lare96>
  */
-public abstract class GsonParser<T> extends Parser<JsonArray, T> {
+public abstract class GsonParser<T> extends Parser<JsonReader, T> {
 
     /**
-     * The current parsing index.
+     * The parser used to read each object.
      */
-    private int currentIndex = -1;
+    private final JsonParser parser = new JsonParser();
 
     /**
      * Creates a new {@link GsonParser}.
@@ -30,24 +30,25 @@ public abstract class GsonParser<T> extends Parser<JsonArray, T> {
     }
 
     @Override
-    public T doRead(JsonArray reader) throws Exception {
-        JsonElement current = reader.get(currentIndex);
-        return readObject(current.getAsJsonObject());
+    public T doRead(JsonReader reader) throws Exception {
+        return readObject(parser.parse(reader).getAsJsonObject());
     }
 
     @Override
-    public JsonArray getReader(BufferedReader in) throws Exception {
-        JsonElement jsonRead = new JsonParser().parse(in);
-        return jsonRead.getAsJsonArray();
+    public JsonReader getReader(BufferedReader in) throws Exception {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        reader.beginArray();
+        return reader;
     }
 
     @Override
-    public boolean canRead(JsonArray objectReader) throws Exception {
-        if (currentIndex + 1 == objectReader.size()) {
-            return false;
+    public boolean canRead(JsonReader objectReader) throws Exception {
+        if (objectReader.hasNext()) {
+            return true;
         }
-        currentIndex++;
-        return true;
+        objectReader.endArray();
+        return false;
     }
 
     /**
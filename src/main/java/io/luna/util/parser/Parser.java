@@ -1,9 +1,5 @@
 package io.luna.util.parser;
 
-import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import java.io.BufferedReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -22,11 +18,6 @@ import java.util.stream.Collectors;
  */
 public abstract class Parser<T1, T2> implements Runnable {
 
-    /**
-     * The asynchronous logger.
-     */
-    private static final Logger LOGGER = LogManager.getLogger();
-
     /**
      * A list of files to parse.
      */
@@ -41,23 +32,72 @@ public abstract class Parser<T1, T2> implements Runnable {
         parseFiles = Arrays.stream(paths).map(Paths::get).collect(Collectors.toList());
     }
 
+    /**
+     * Parses every file, throwing an {@link IllegalStateException} as soon as any file fails to parse.
+     */
     @Override
     public final void run() {
         for (Path path : parseFiles) {
-            try (BufferedReader in = Files.newBufferedReader(path)) {
-                List<T2> readObjects = new ArrayList<>();
-                T1 reader = getReader(in);
+            try {
+                onReadComplete(readFile(path));
+            } catch (Exception e) {
+                throw new IllegalStateException("could not parse " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Reads every {@code Object} from the file at {@code path}, keeping those that {@code onRead(T2)} retains.
+     *
+     * @param path The file to parse.
+     * @return The list of {@code Object}s that were parsed.
+     * @throws Exception If any errors occur while reading.
+     */
+    protected List<T2> readFile(Path path) throws Exception {
+        return readFile(path, true);
+    }
+
+    /**
+     * Reads every {@code Object} from the file at {@code path}.
+     *
+     * @param path The file to parse.
+     * @param consume If each {@code Object} should be passed to {@code onRead(T2)} as soon as it's parsed. Otherwise,
+     * every {@code Object} is kept.
+     * @return The list of {@code Object}s that were parsed.
+     * @throws Exception If any errors occur while reading.
+     */
+    protected final List<T2> readFile(Path path, boolean consume) throws Exception {
+        try (BufferedReader in = Files.newBufferedReader(path)) {
+            List<T2> readObjects = new ArrayList<>();
+            T1 reader = getReader(in);
 
-                while (canRead(reader)) {
-                    readObjects.add(doRead(reader));
+            while (canRead(reader)) {
+                T2 readObject = doRead(reader);
+                if (!consume || onRead(readObject)) {
+                    readObjects.add(readObject);
                 }
-                onReadComplete(readObjects);
-            } catch (Exception e) {
-                LOGGER.catching(Level.FATAL, e);
             }
+            return readObjects;
         }
     }
 
+    /**
+     * Passes every {@code Object} in {@code readObjects} to {@code onRead(T2)}, as if they had just been parsed.
+     *
+     * @param readObjects The {@code Object}s to consume.
+     * @return The {@code Object}s that were retained.
+     * @throws Exception If any errors occur while consuming.
+     */
+    protected final List<T2> consume(List<T2> readObjects) throws Exception {
+        List<T2> retained = new ArrayList<>(readObjects.size());
+        for (T2 readObject : readObjects) {
+            if (onRead(readObject)) {
+                retained.add(readObject);
+            }
+        }
+        return retained;
+    }
+
     /**
      * Read the contents of the file with {@code reader}.
      *
@@ -85,6 +125,18 @@ public abstract class Parser<T1, T2> implements Runnable {
      */
     public abstract boolean canRead(T1 objectReader) throws Exception;
 
+    /**
+     * Invoked as soon as an {@code Object} is parsed. Parsers that consume objects one at a time can do so here
+     * and return {@code false}, so that memory stays bounded regardless of the file size.
+     *
+     * @param readObject The {@code Object} that was parsed.
+     * @return {@code true} to retain the {@code Object} for {@code onReadComplete(List)}, {@code false} otherwise.
+     * @throws Exception If any errors occur while consuming the {@code Object}.
+     */
+    public boolean onRead(T2 readObject) throws Exception {
+        return true;
+    }
+
     /**
      * Invoked when this parser finishes parsing all {@code Object}s.
      *
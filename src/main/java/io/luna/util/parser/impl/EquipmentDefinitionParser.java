@@ -5,9 +5,13 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.luna.game.model.def.EquipmentDefinition;
 import io.luna.game.model.def.EquipmentDefinition.EquipmentRequirement;
+import io.luna.game.model.mob.Skill;
 import io.luna.util.GsonUtils;
-import io.luna.util.parser.GsonParser;
+import io.luna.util.parser.CachedGsonParser;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -15,11 +19,11 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * A {@link GsonParser} implementation that reads equipment definitions.
+ * A {@link CachedGsonParser} implementation that reads equipment definitions.
  *
  * @author lare96 <http://github.org/lare96>
  */
-public final class EquipmentDefinitionParser extends GsonParser<EquipmentDefinition> {
+public final class EquipmentDefinitionParser extends CachedGsonParser<EquipmentDefinition> {
 
     /**
      * Creates a new {@link EquipmentDefinitionParser}.
@@ -41,6 +45,40 @@ public final class EquipmentDefinitionParser extends GsonParser<EquipmentDefinit
         return new EquipmentDefinition(id, index, twoHanded, fullBody, fullHelmet, requirements, bonuses);
     }
 
+    @Override
+    public void encode(DataOutput out, EquipmentDefinition def) throws IOException {
+        out.writeShort(def.getId());
+        out.writeByte(def.getIndex());
+        out.writeBoolean(def.isTwoHanded());
+        out.writeBoolean(def.isFullBody());
+        out.writeBoolean(def.isFullHelmet());
+        out.writeByte(def.getRequirements().size());
+        for (EquipmentRequirement requirement : def.getRequirements()) {
+            out.writeByte(requirement.getId());
+            out.writeInt(requirement.getLevel());
+        }
+        writeInts(out, def.getBonuses());
+    }
+
+    @Override
+    public EquipmentDefinition decode(ByteBuffer buf) {
+        int id = buf.getShort();
+        int index = buf.get();
+        boolean twoHanded = buf.get() == 1;
+        boolean fullBody = buf.get() == 1;
+        boolean fullHelmet = buf.get() == 1;
+        EquipmentRequirement[] requirements = new EquipmentRequirement[buf.get() & 0xFF];
+        for (int i = 0; i < requirements.length; i++) {
+            String name = Skill.getName(buf.get());
+            int level = buf.getInt();
+
+            requirements[i] = new EquipmentRequirement(name, level);
+        }
+        int[] bonuses = readInts(buf);
+
+        return new EquipmentDefinition(id, index, twoHanded, fullBody, fullHelmet, requirements, bonuses);
+    }
+
     @Override
     public void onReadComplete(List<EquipmentDefinition> readObjects) throws Exception {
         LinkedHashMap<Integer, EquipmentDefinition> definitions = new LinkedHashMap<>();
@@ -3,17 +3,20 @@ package io.luna.util.parser.impl;
 import com.google.gson.JsonObject;
 import io.luna.game.model.def.ItemDefinition;
 import io.luna.util.GsonUtils;
-import io.luna.util.parser.GsonParser;
+import io.luna.util.parser.CachedGsonParser;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
 /**
- * A {@link GsonParser} implementation that reads item definitions.
+ * A {@link CachedGsonParser} implementation that reads item definitions.
  *
  * @author lare96 <http://github.org/lare96>
  */
-public final class ItemDefinitionParser extends GsonParser<ItemDefinition> {
+public final class ItemDefinitionParser extends CachedGsonParser<ItemDefinition> {
 
     /**
      * A String array of empty inventory and ground actions.
@@ -49,6 +52,41 @@ public final class ItemDefinitionParser extends GsonParser<ItemDefinition> {
                 tradeable, inventoryActions, groundActions);
     }
 
+    @Override
+    public void encode(DataOutput out, ItemDefinition def) throws IOException {
+        out.writeShort(def.getId());
+        writeString(out, def.getName());
+        writeString(out, def.getExamine());
+        out.writeBoolean(def.isStackable());
+        out.writeInt(def.getValue());
+        out.writeShort(def.getNotedId().orElse(-1));
+        out.writeShort(def.getUnnotedId().orElse(-1));
+        out.writeBoolean(def.isMembersOnly());
+        out.writeDouble(def.getWeight());
+        out.writeBoolean(def.isTradeable());
+        writeStrings(out, def.getInventoryActions());
+        writeStrings(out, def.getGroundActions());
+    }
+
+    @Override
+    public ItemDefinition decode(ByteBuffer buf) {
+        int id = buf.getShort();
+        String name = readString(buf);
+        String examine = readString(buf);
+        boolean stackable = buf.get() == 1;
+        int baseValue = buf.getInt();
+        int notedId = buf.getShort();
+        int unnotedId = buf.getShort();
+        boolean membersOnly = buf.get() == 1;
+        double weight = buf.getDouble();
+        boolean tradeable = buf.get() == 1;
+        String[] inventoryActions = readStrings(buf);
+        String[] groundActions = readStrings(buf);
+
+        return new ItemDefinition(id, name, examine, stackable, baseValue, notedId, unnotedId, membersOnly, weight,
+                tradeable, inventoryActions, groundActions);
+    }
+
     @Override
     public void onReadComplete(List<ItemDefinition> readObjects) throws Exception {
         ItemDefinition[] definitions = new ItemDefinition[7956];
@@ -0,0 +1,47 @@
+package io.luna.util.parser.impl;
+
+import com.google.gson.JsonObject;
+import fj.P;
+import fj.P3;
+import io.luna.net.msg.MessageRepository;
+import io.luna.util.parser.GsonParser;
+
+import java.util.List;
+
+/**
+ * A {@link GsonParser} implementation that parses incoming packet rate limits.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class MessageRateLimitParser extends GsonParser<P3<Integer, Integer, Integer>> {
+
+    /**
+     * The message repository.
+     */
+    private final MessageRepository messageRepository;
+
+    /**
+     * Creates a new {@link MessageRateLimitParser}.
+     *
+     * @param messageRepository The message repository.
+     */
+    public MessageRateLimitParser(MessageRepository messageRepository) {
+        super("./data/io/message_limits.json");
+        this.messageRepository = messageRepository;
+    }
+
+    @Override
+    public P3<Integer, Integer, Integer> readObject(JsonObject reader) throws Exception {
+        int opcode = reader.get("opcode").getAsInt();
+        int capacity = reader.get("capacity").getAsInt();
+        int refill = reader.get("refill").getAsInt();
+        return P.p(opcode, capacity, refill);
+    }
+
+    @Override
+    public void onReadComplete(List<P3<Integer, Integer, Integer>> readObjects) throws Exception {
+        for (P3<Integer, Integer, Integer> it : readObjects) {
+            messageRepository.addRateLimit(it._1(), it._2(), it._3());
+        }
+    }
+}
@@ -3,19 +3,22 @@ package io.luna.util.parser.impl;
 import com.google.gson.JsonObject;
 import io.luna.game.model.def.NpcCombatDefinition;
 import io.luna.util.GsonUtils;
-import io.luna.util.parser.GsonParser;
+import io.luna.util.parser.CachedGsonParser;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * A {@link GsonParser} implementation that reads NPC combat definitions.
+ * A {@link CachedGsonParser} implementation that reads NPC combat definitions.
  *
  * @author lare96 <http://github.org/lare96>
  */
-public class NpcCombatDefinitionParser extends GsonParser<NpcCombatDefinition> {
+public class NpcCombatDefinitionParser extends CachedGsonParser<NpcCombatDefinition> {
 
     /**
      * Creates a new {@link NpcCombatDefinitionParser}.
@@ -44,6 +47,43 @@ public class NpcCombatDefinitionParser extends GsonParser<NpcCombatDefinition> {
             attackSpeed, attackAnimation, defenceAnimation, deathAnimation, skills, bonuses);
     }
 
+    @Override
+    public void encode(DataOutput out, NpcCombatDefinition def) throws IOException {
+        out.writeShort(def.getId());
+        out.writeInt(def.getRespawnTime());
+        out.writeBoolean(def.isAggressive());
+        out.writeBoolean(def.isPoisonous());
+        out.writeInt(def.getLevel());
+        out.writeInt(def.getHitpoints());
+        out.writeInt(def.getMaximumHit());
+        out.writeInt(def.getAttackSpeed());
+        out.writeInt(def.getAttackAnimation());
+        out.writeInt(def.getDefenceAnimation());
+        out.writeInt(def.getDeathAnimation());
+        writeInts(out, def.getSkills());
+        writeInts(out, def.getBonuses());
+    }
+
+    @Override
+    public NpcCombatDefinition decode(ByteBuffer buf) {
+        int id = buf.getShort();
+        int respawnTicks = buf.getInt();
+        boolean aggressive = buf.get() == 1;
+        boolean poisonous = buf.get() == 1;
+        int combatLevel = buf.getInt();
+        int hitpoints = buf.getInt();
+        int maximumHit = buf.getInt();
+        int attackSpeed = buf.getInt();
+        int attackAnimation = buf.getInt();
+        int defenceAnimation = buf.getInt();
+        int deathAnimation = buf.getInt();
+        int[] skills = readInts(buf);
+        int[] bonuses = readInts(buf);
+
+        return new NpcCombatDefinition(id, respawnTicks, aggressive, poisonous, combatLevel, hitpoints, maximumHit,
+            attackSpeed, attackAnimation, defenceAnimation, deathAnimation, skills, bonuses);
+    }
+
     @Override
     public void onReadComplete(List<NpcCombatDefinition> readObjects) throws Exception {
         LinkedHashMap<Integer, NpcCombatDefinition> definitions = new LinkedHashMap<>();
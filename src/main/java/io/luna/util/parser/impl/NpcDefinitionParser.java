@@ -3,16 +3,19 @@ package io.luna.util.parser.impl;
 import com.google.gson.JsonObject;
 import io.luna.game.model.def.NpcDefinition;
 import io.luna.util.GsonUtils;
-import io.luna.util.parser.GsonParser;
+import io.luna.util.parser.CachedGsonParser;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
- * A {@link GsonParser} implementation that reads NPC definitions.
+ * A {@link CachedGsonParser} implementation that reads NPC definitions.
  *
  * @author lare96 <http://github.org/lare96>
  */
-public final class NpcDefinitionParser extends GsonParser<NpcDefinition> {
+public final class NpcDefinitionParser extends CachedGsonParser<NpcDefinition> {
 
     /**
      * A String array of empty NPC actions.
@@ -44,6 +47,35 @@ public final class NpcDefinitionParser extends GsonParser<NpcDefinition> {
             walkRightAnimation, actions);
     }
 
+    @Override
+    public void encode(DataOutput out, NpcDefinition def) throws IOException {
+        out.writeShort(def.getId());
+        writeString(out, def.getName());
+        writeString(out, def.getExamine());
+        out.writeByte(def.getSize());
+        out.writeShort(def.getWalkAnimation());
+        out.writeShort(def.getWalkBackAnimation());
+        out.writeShort(def.getWalkLeftAnimation());
+        out.writeShort(def.getWalkRightAnimation());
+        writeStrings(out, def.getActions());
+    }
+
+    @Override
+    public NpcDefinition decode(ByteBuffer buf) {
+        int id = buf.getShort();
+        String name = readString(buf);
+        String examine = readString(buf);
+        int size = buf.get();
+        int walkAnimation = buf.getShort();
+        int walkBackAnimation = buf.getShort();
+        int walkLeftAnimation = buf.getShort();
+        int walkRightAnimation = buf.getShort();
+        String[] actions = readStrings(buf);
+
+        return new NpcDefinition(id, name, examine, size, walkAnimation, walkBackAnimation, walkLeftAnimation,
+            walkRightAnimation, actions);
+    }
+
     @Override
     public void onReadComplete(List<NpcDefinition> readObjects) throws Exception {
         NpcDefinition[] definitions = new NpcDefinition[8152];
@@ -14,6 +14,11 @@ import java.util.List;
  */
 public final class ObjectDefinitionParser extends GsonParser<ObjectDefinition> {
 
+    /**
+     * The path to the object definition file.
+     */
+    public static final String PATH = "./data/objects/obj_defs.json";
+
     /**
      * A String array of empty object actions.
      */
@@ -24,7 +29,7 @@ public final class ObjectDefinitionParser extends GsonParser<ObjectDefinition> {
      * Creates a new {@link ObjectDefinitionParser}.
      */
     public ObjectDefinitionParser() {
-        super("./data/objects/obj_defs.json");
+        super(PATH);
     }
 
     @Override
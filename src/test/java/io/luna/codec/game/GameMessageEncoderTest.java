@@ -5,6 +5,7 @@ import io.luna.net.codec.IsaacCipher;
 import io.luna.net.codec.MessageType;
 import io.luna.net.codec.game.GameMessageEncoder;
 import io.luna.net.msg.GameMessage;
+import io.luna.net.msg.GameMessageBatch;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.junit.Test;
@@ -70,4 +71,36 @@ public final class GameMessageEncoderTest {
         assertEquals('s', buffer.readByte());
         assertEquals('t', buffer.readByte());
     }
+
+    /**
+     * Test encoding batches of game packets against encoding them one by one.
+     */
+    @Test
+    public void testEncodeBatch() throws Exception {
+        GameMessageEncoder singleEncoder = new GameMessageEncoder(new IsaacCipher(new int[] { 1, 2, 3, 4 }));
+        GameMessageEncoder batchEncoder = new GameMessageEncoder(new IsaacCipher(new int[] { 1, 2, 3, 4 }));
+
+        ByteBuf expected = Unpooled.buffer();
+        ByteBuf actual = Unpooled.buffer();
+
+        // enough messages to cross the boundary of the 256 value result block
+        GameMessage[] batch = new GameMessage[300];
+        for (int index = 0; index < batch.length; index++) {
+            MessageType type = MessageType.values()[1 + index % 3];
+            batch[index] = newMessage(index % 256, type, index);
+            singleEncoder.encode(null, newMessage(index % 256, type, index), expected);
+        }
+        batchEncoder.encode(null, new GameMessageBatch(batch), actual);
+
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Creates a new game message with a single byte payload.
+     */
+    private GameMessage newMessage(int opcode, MessageType type, int value) {
+        ByteMessage msg = ByteMessage.message(opcode, type);
+        msg.put(value);
+        return new GameMessage(msg.getOpcode(), msg.getType(), msg);
+    }
 }
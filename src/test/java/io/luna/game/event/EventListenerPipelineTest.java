@@ -0,0 +1,148 @@
+package io.luna.game.event;
+
+import com.google.common.collect.ImmutableList;
+import io.luna.game.event.impl.LoginSnapshotEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A test that ensures the {@link EventListenerPipeline} dispatches indexed events correctly.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class EventListenerPipelineTest {
+
+    /**
+     * An event indexed by an identifier.
+     */
+    private static final class KeyedEvent extends Event {
+
+        /**
+         * The identifier.
+         */
+        private final int id;
+
+        /**
+         * Creates a new {@link KeyedEvent}.
+         *
+         * @param id The identifier.
+         */
+        private KeyedEvent(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean matches(EventArguments args) {
+            return args.contains(id);
+        }
+
+        @Override
+        public Object key() {
+            return id;
+        }
+
+        @Override
+        public Iterable<?> keys(EventArguments args) {
+            return args;
+        }
+    }
+
+    /**
+     * The names of the listeners applied, in order.
+     */
+    private final List<String> applied = new ArrayList<>();
+
+    /**
+     * The pipeline.
+     */
+    private final EventListenerPipeline<KeyedEvent> pipeline = new EventListenerPipeline<>(KeyedEvent.class);
+
+    /**
+     * Test that only matching and unkeyed listeners are applied, in the order they were added.
+     */
+    @Test
+    public void testOrder() {
+        add("first");
+        add("one", 1, 500);
+        add("two", 2);
+        add("second");
+        add("three", 500, 3);
+
+        pipeline.traverse(new KeyedEvent(500));
+        assertEquals(ImmutableList.of("first", "one"), applied); // Matching terminates the traversal.
+
+        applied.clear();
+        pipeline.traverse(new KeyedEvent(3));
+        assertEquals(ImmutableList.of("first", "second", "three"), applied);
+
+        applied.clear();
+        pipeline.traverse(new KeyedEvent(4));
+        assertEquals(ImmutableList.of("first", "second"), applied);
+    }
+
+    /**
+     * Test that the index is rebuilt when listeners are added or removed.
+     */
+    @Test
+    public void testRebuild() {
+        add("one", 1);
+        pipeline.traverse(new KeyedEvent(1));
+
+        pipeline.removeIf(listener -> true);
+        add("first");
+        add("other", 1);
+        pipeline.traverse(new KeyedEvent(1));
+        assertEquals(ImmutableList.of("one", "first", "other"), applied);
+    }
+
+    /**
+     * Test that asynchronous listeners are deferred to their executor, and don't block synchronous ones.
+     */
+    @Test
+    public void testAsync() {
+        List<Runnable> deferred = new ArrayList<>();
+        pipeline.add(new EventListener<KeyedEvent>(EventArguments.NO_ARGS, msg -> applied.add("async"),
+            deferred::add));
+        add("sync");
+
+        pipeline.traverse(new KeyedEvent(1));
+        assertEquals(ImmutableList.of("sync"), applied);
+        assertEquals(1, deferred.size());
+
+        deferred.get(0).run();
+        assertEquals(ImmutableList.of("sync", "async"), applied);
+    }
+
+    /**
+     * Test that asynchronous listeners can't intercept events referencing mutable game state.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsyncMutableEvent() {
+        EventListenerPipelineSet set = new EventListenerPipelineSet();
+        set.add(KeyedEvent.class, new EventListener<KeyedEvent>(EventArguments.NO_ARGS, msg -> {
+        }, Runnable::run));
+    }
+
+    /**
+     * Test that asynchronous listeners can intercept player snapshot events.
+     */
+    @Test
+    public void testAsyncSnapshotEvent() {
+        EventListenerPipelineSet set = new EventListenerPipelineSet();
+        set.add(LoginSnapshotEvent.class, new EventListener<LoginSnapshotEvent>(EventArguments.NO_ARGS, msg -> {
+        }, Runnable::run));
+        assertEquals(1, set.get(LoginSnapshotEvent.class).size());
+    }
+
+    /**
+     * Adds a listener named {@code name} matching {@code ids}, or every event if there are none.
+     */
+    private void add(String name, Object... ids) {
+        EventArguments args = ids.length == 0 ? EventArguments.NO_ARGS : new EventArguments(ids);
+        pipeline.add(new EventListener<KeyedEvent>(args, msg -> applied.add(name)));
+    }
+}
@@ -0,0 +1,259 @@
+package io.luna.game.model.item;
+
+import io.luna.game.model.item.ItemContainer.StackPolicy;
+import io.luna.game.model.item.ItemContainer.TransactionResult;
+import io.luna.net.codec.ByteMessage;
+import io.luna.net.msg.MessageWriter;
+import io.netty.buffer.ByteBuf;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A test that ensures the primitive storage of {@link ItemContainer} is functioning correctly.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class ItemContainerTest {
+
+    /**
+     * Test that stacking items share an index, and are found without scanning.
+     */
+    @Test
+    public void testStacking() {
+        ItemContainer container = new ItemContainer(10, StackPolicy.ALWAYS);
+        container.add(new Item(4151));
+        container.add(new Item(995, 10));
+        container.add(new Item(995, Integer.MAX_VALUE));
+
+        assertEquals(2, container.getSize());
+        assertEquals(1, container.indexOf(995));
+        assertEquals(Integer.MAX_VALUE, container.getAmount(1));
+
+        container.remove(new Item(4151));
+        container.remove(new Item(995, 5));
+        assertEquals(Integer.MAX_VALUE - 5, container.get(1).getAmount());
+
+        container.remove(new Item(995, Integer.MAX_VALUE));
+        assertEquals(-1, container.indexOf(995));
+        assertEquals(0, container.getSize());
+
+        container.add(new Item(995, 3));
+        assertEquals(0, container.indexOf(995));
+    }
+
+    /**
+     * Test that moving items keeps the stack index up to date.
+     */
+    @Test
+    public void testMoving() {
+        ItemContainer container = new ItemContainer(10, StackPolicy.ALWAYS);
+        container.addAll(new Item(995, 10), new Item(4151), new Item(1050));
+
+        container.swap(0, 2);
+        container.add(new Item(995, 5));
+        assertEquals(15, container.getAmount(2));
+
+        container.remove(new Item(4151));
+        container.shift();
+        assertEquals(1, container.indexOf(995));
+        assertEquals(2, container.getSize());
+
+        container.setItems(new int[]{0, 4151}, new int[]{0, 7});
+        assertEquals(1, container.indexOf(4151));
+        assertEquals(-1, container.indexOf(995));
+        assertEquals(1, container.getSize());
+    }
+
+    /**
+     * Test that non-stacking items take an index each.
+     */
+    @Test
+    public void testNonStacking() {
+        ItemContainer container = new ItemContainer(4, StackPolicy.NEVER);
+        assertTrue(container.add(new Item(4151, 3)));
+        assertEquals(3, container.getSize());
+        assertEquals(3, container.computeAmountForId(4151));
+
+        assertTrue(container.add(new Item(1050, 5)));
+        assertEquals(4, container.getSize());
+        assertFalse(container.add(new Item(1050)));
+
+        container.remove(new Item(4151, 2), 1);
+        assertEquals(2, container.getSize());
+        assertNull(container.get(1));
+        assertEquals(1, container.computeAmountForId(4151));
+    }
+
+    /**
+     * Test that a transaction is applied in full with one completion event, or rolled back.
+     */
+    @Test
+    public void testTransaction() {
+        ItemContainer container = new ItemContainer(3, StackPolicy.NEVER);
+        container.add(new Item(1511, 2));
+
+        int[] events = new int[3];
+        container.addListener(new ItemContainerListener() {
+            @Override
+            public void onSingleUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem,
+                                       int index) {
+                events[0]++;
+            }
+
+            @Override
+            public void onBulkUpdate(ItemContainer items, Optional<Item> oldItem, Optional<Item> newItem,
+                                     int index) {
+                events[1]++;
+            }
+
+            @Override
+            public void onBulkUpdateCompleted(ItemContainer items) {
+                events[2]++;
+            }
+        });
+
+        assertEquals(TransactionResult.SUCCESS, container.transaction().
+            remove(new Item(1511)).add(new Item(960, 2)).commit());
+        assertEquals(3, container.getSize());
+        assertEquals(1, container.computeAmountForId(1511));
+        assertArrayEquals(new int[]{0, 2, 1}, events);
+
+        assertEquals(TransactionResult.NOT_ENOUGH_SPACE, container.transaction().
+            remove(new Item(1511)).add(new Item(960, 2)).commit());
+        assertEquals(TransactionResult.MISSING_ITEMS, container.transaction().
+            remove(new Item(1511, 2)).commit());
+        assertEquals(1, container.computeAmountForId(1511));
+        assertEquals(2, container.computeAmountForId(960));
+        assertArrayEquals(new int[]{0, 2, 1}, events);
+    }
+
+    /**
+     * Test that listeners receiving identifiers and amounts see every change, without any items being created.
+     */
+    @Test
+    public void testPrimitiveListener() throws Exception {
+        ItemContainer container = new ItemContainer(4, StackPolicy.ALWAYS);
+        container.setItems(new int[]{995, 4151}, new int[]{100, 1});
+
+        long[] totals = new long[2];
+        container.addListener(new PrimitiveItemContainerListener() {
+            @Override
+            public void onSingleUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId,
+                                       int newAmount) {
+                totals[0] += newAmount - oldAmount;
+            }
+
+            @Override
+            public void onBulkUpdate(ItemContainer items, int index, int oldId, int oldAmount, int newId,
+                                     int newAmount) {
+                totals[1] += newAmount - oldAmount;
+            }
+        });
+
+        container.swap(0, 1);
+        container.remove(new Item(995, 40));
+        assertArrayEquals(new long[]{-40, 0}, totals);
+
+        Field views = ItemContainer.class.getDeclaredField("views");
+        views.setAccessible(true);
+        assertArrayEquals(new Item[4], (Item[]) views.get(container));
+
+        container.transaction().add(new Item(1050)).commit();
+        container.clear();
+        assertArrayEquals(new long[]{-40, -61}, totals);
+    }
+
+    /**
+     * Test that a bulk update only sends the changed indexes, unless sending the entire container is smaller.
+     */
+    @Test
+    public void testBulkRefresh() {
+        ItemContainer container = new ItemContainer(Bank.SIZE, StackPolicy.ALWAYS);
+        for (int id = 1; id <= 200; id++) {
+            container.add(new Item(id));
+        }
+
+        List<MessageWriter> sent = new ArrayList<>();
+        container.addListener(new ItemContainerAdapter(null) {
+            @Override
+            protected void queue(MessageWriter msg) {
+                sent.add(msg);
+            }
+
+            @Override
+            public int getWidgetId() {
+                return Bank.BANK_DISPLAY_ID;
+            }
+
+            @Override
+            public String getCapacityExceededMsg() {
+                return "";
+            }
+        });
+
+        container.addAll(new Item(995, 1000));
+        assertEquals(1, sent.size());
+        ByteMessage msg = sent.get(0).write(null);
+        try {
+            ByteBuf buf = msg.getBuffer();
+            assertEquals(34, msg.getOpcode());
+            assertEquals(Bank.BANK_DISPLAY_ID, buf.readUnsignedShort());
+            assertEquals(200 + 32768, buf.readUnsignedShort());
+            assertEquals(996, buf.readUnsignedShort());
+            assertEquals(255, buf.readUnsignedByte());
+            assertEquals(1000, buf.readInt());
+            assertFalse(buf.isReadable());
+        } finally {
+            msg.release();
+        }
+
+        for (int id = 1000; container.nextFreeIndex() != -1; id++) {
+            container.add(new Item(id));
+        }
+        sent.clear();
+        container.clear();
+        assertEquals(1, sent.size());
+        msg = sent.get(0).write(null);
+        try {
+            assertEquals(53, msg.getOpcode());
+        } finally {
+            msg.release();
+        }
+    }
+
+    /**
+     * Test the stack index against a reference map.
+     */
+    @Test
+    public void testStackIndex() {
+        ItemStackIndex index = new ItemStackIndex(64);
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(0);
+
+        for (int step = 0; step < 100_000; step++) {
+            int id = 1 + random.nextInt(200);
+            if (reference.size() < 64 && random.nextBoolean()) {
+                index.put(id, step);
+                reference.put(id, step);
+            } else {
+                index.remove(id);
+                reference.remove(id);
+            }
+            int checkId = 1 + random.nextInt(200);
+            assertEquals((int) reference.getOrDefault(checkId, -1), index.get(checkId));
+        }
+    }
+}
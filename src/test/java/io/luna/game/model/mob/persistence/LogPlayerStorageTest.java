@@ -0,0 +1,70 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import io.luna.game.model.mob.PlayerRights;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * A test that ensures the {@link LogPlayerStorage} is functioning correctly.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class LogPlayerStorageTest {
+
+    /**
+     * A temporary directory for segments.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test that the latest saves survive reopening and compaction.
+     */
+    @Test
+    public void testReopenAndCompact() throws Exception {
+        Path directory = folder.getRoot().toPath();
+
+        try (LogPlayerStorage storage = new LogPlayerStorage(directory, 512)) {
+            for (int x = 0; x < 20; x++) {
+                storage.save("alice", newData(x));
+                storage.save("bob", newData(1000 + x));
+            }
+            storage.sync();
+        }
+
+        try (LogPlayerStorage storage = new LogPlayerStorage(directory, 512)) {
+            assertEquals(19, storage.load("alice").get().getX());
+            assertEquals(1019, storage.load("bob").get().getX());
+            assertFalse(storage.load("carol").isPresent());
+
+            for (int count = 0; count < 20; count++) {
+                storage.compact();
+            }
+            assertFalse(Files.exists(directory.resolve("segment-000001.log")));
+            assertEquals(19, storage.load("alice").get().getX());
+            assertEquals(1019, storage.load("bob").get().getX());
+        }
+
+        try (LogPlayerStorage storage = new LogPlayerStorage(directory, 512)) {
+            assertEquals(2, storage.getUsernames().size());
+            assertEquals(19, storage.load("alice").get().getX());
+        }
+    }
+
+    /**
+     * Creates test data with the {@code x} coordinate {@code x}.
+     */
+    private PlayerData newData(int x) {
+        PackedItems items = new PackedItems(new int[4], new int[4]);
+        return new PlayerData("password", x, 3222, 0, PlayerRights.PLAYER, false, new int[0], items, items, items,
+            new int[0], new double[0], ImmutableMap.of());
+    }
+}
@@ -0,0 +1,121 @@
+package io.luna.game.model.mob.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import io.luna.game.model.mob.PlayerRights;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * A test that ensures {@link PlayerData} survives a round trip through the binary save format.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PlayerDataTest {
+
+    /**
+     * Test writing and reading a binary save.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        ImmutableMap<String, Object> attributes = ImmutableMap.of("run_energy", 87.5, "first_login", false,
+            "last_ip", "127.0.0.1", "unlocked_tracks", new int[] { 3, 76 });
+        byte[] bytes = write(newData(attributes));
+
+        PlayerData read;
+        try (PlayerDataReader reader = new PlayerDataReader(new ByteArrayInputStream(bytes))) {
+            assertEquals("hunter2", reader.readPassword());
+            read = reader.readData();
+            assertEquals(PlayerDataWriter.VERSION, reader.getVersion());
+        }
+
+        assertEquals(3222, read.getX());
+        assertEquals(3218, read.getY());
+        assertEquals(1, read.getZ());
+        assertEquals(PlayerRights.ADMINISTRATOR, read.getRights());
+        assertEquals(true, read.isRunning());
+        assertArrayEquals(new int[] { 0, 3, 14 }, read.getAppearance());
+        assertEquals(2, read.getInventory().computeSize());
+        assertEquals(4151, read.getInventory().getId(2));
+        assertEquals(1000, read.getInventory().getAmount(0));
+        assertEquals(4, read.getBank().getCapacity());
+        assertEquals(1079, read.getEquipment().getId(1));
+        assertArrayEquals(new int[] { 99, 1 }, read.getSkillLevels());
+        assertEquals(13034431, read.getSkillExperience()[0], 0);
+        assertEquals(attributes.size(), read.getAttributes().size());
+        assertEquals(87.5, read.getAttributes().get("run_energy"));
+        assertEquals(false, read.getAttributes().get("first_login"));
+        assertEquals("127.0.0.1", read.getAttributes().get("last_ip"));
+        JsonAttribute tracks = (JsonAttribute) read.getAttributes().get("unlocked_tracks");
+        assertArrayEquals(new int[] { 3, 76 }, (int[]) tracks.decode());
+    }
+
+    /**
+     * Test that a corrupt body is rejected before anything is decoded.
+     */
+    @Test(expected = IOException.class)
+    public void testChecksumMismatch() throws Exception {
+        byte[] bytes = write(newData(ImmutableMap.of()));
+        bytes[bytes.length - 1] ^= 1;
+
+        try (PlayerDataReader reader = new PlayerDataReader(new ByteArrayInputStream(bytes))) {
+            reader.readPassword();
+        }
+    }
+
+    /**
+     * Test that a corrupt body length is rejected before the body is allocated.
+     */
+    @Test(expected = IOException.class)
+    public void testCorruptBodyLength() throws Exception {
+        byte[] bytes = write(newData(ImmutableMap.of()));
+        ByteBuffer.wrap(bytes).putInt(6, Integer.MAX_VALUE - 8); /* After the magic and version. */
+
+        try (PlayerDataReader reader = new PlayerDataReader(new ByteArrayInputStream(bytes))) {
+            reader.readPassword();
+        }
+    }
+
+    /**
+     * Test that snapshots of mutable attributes compare by their contents at the time they were taken, so that
+     * autosaves only skip players that haven't changed.
+     */
+    @Test
+    public void testMutableAttributeEquality() {
+        int[] tracks = { 3, 76 };
+        PlayerData before = newData(ImmutableMap.of("unlocked_tracks", JsonAttribute.of(tracks)));
+        assertEquals(before, newData(ImmutableMap.of("unlocked_tracks", JsonAttribute.of(new int[] { 3, 76 }))));
+
+        tracks[1] = 77;
+        assertNotEquals(before, newData(ImmutableMap.of("unlocked_tracks", JsonAttribute.of(tracks))));
+    }
+
+    /**
+     * Writes {@code data} to a byte array.
+     */
+    private byte[] write(PlayerData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PlayerDataWriter writer = new PlayerDataWriter(bytes)) {
+            writer.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Creates test data with {@code attributes}.
+     */
+    private PlayerData newData(ImmutableMap<String, Object> attributes) {
+        PackedItems inventory = new PackedItems(new int[] { 995, 0, 4151 }, new int[] { 1000, 0, 1 });
+        PackedItems bank = new PackedItems(new int[4], new int[4]);
+        PackedItems equipment = new PackedItems(new int[] { 0, 1079 }, new int[] { 0, 1 });
+        return new PlayerData("hunter2", 3222, 3218, 1, PlayerRights.ADMINISTRATOR, true, new int[] { 0, 3, 14 },
+            inventory, bank, equipment, new int[] { 99, 1 }, new double[] { 13034431, 0 }, attributes);
+    }
+}
@@ -0,0 +1,162 @@
+package io.luna.game.plugin;
+
+import io.luna.LunaContext;
+import io.luna.game.event.EventListener;
+import io.luna.game.event.EventListenerPipeline;
+import io.luna.game.event.EventListenerPipelineSet;
+import io.luna.game.event.impl.ServerLaunchEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * A test that ensures the {@link PluginBootstrap} never drops loaded plugins when a reload fails.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class PluginBootstrapTest {
+
+    /**
+     * A bootstrap exposing a function that adds a server launch listener.
+     */
+    private static final String BOOTSTRAP = "import io.luna.game.event.{EventArguments, EventListener, " +
+        "EventListenerPipelineSet}\n" +
+        "import io.luna.game.event.impl.ServerLaunchEvent\n" +
+        "val pipelines = $pipelines$.asInstanceOf[EventListenerPipelineSet]\n" +
+        "def onLaunch(): Unit = pipelines.add(classOf[ServerLaunchEvent], " +
+        "new EventListener[ServerLaunchEvent](EventArguments.NO_ARGS, (msg: ServerLaunchEvent) => ()))\n";
+
+    /**
+     * A plugin that adds a server launch listener.
+     */
+    private static final String PLUGIN = "onLaunch()\n";
+
+    /**
+     * A plugin that sets the {@link #LAUNCHED} system property when the server launches.
+     */
+    private static final String LAUNCH_PLUGIN = "pipelines.add(classOf[ServerLaunchEvent], " +
+        "new EventListener[ServerLaunchEvent](EventArguments.NO_ARGS, " +
+        "(msg: ServerLaunchEvent) => System.setProperty(\"luna.test.launched\", \"true\")))\n";
+
+    /**
+     * The system property set by {@link #LAUNCH_PLUGIN}.
+     */
+    private static final String LAUNCHED = "luna.test.launched";
+
+    /**
+     * The temporary directories.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * The context instance.
+     */
+    private LunaContext context;
+
+    /**
+     * The directory containing plugin files.
+     */
+    private Path pluginDir;
+
+    /**
+     * The directory containing compiled plugins.
+     */
+    private Path cacheDir;
+
+    @Before
+    public void setUp() throws Exception {
+        Constructor<LunaContext> constructor = LunaContext.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        context = constructor.newInstance();
+
+        pluginDir = folder.newFolder("plugins").toPath();
+        cacheDir = folder.newFolder("cache").toPath();
+    }
+
+    @Test
+    public void testFailedReloadWithChangedBootstrap() throws Exception {
+        write("bootstrap.scala", BOOTSTRAP);
+        write("first.scala", PLUGIN);
+        write("second.scala", PLUGIN);
+        load();
+
+        LoadedPlugins previous = context.getPlugins().getLoaded();
+        assertEquals(setOf("first.scala", "second.scala"), plugins(previous.getRegistry()));
+
+        write("bootstrap.scala", BOOTSTRAP + "def unused(): Unit = ()\n");
+        write("second.scala", "onLaunch(\n");
+        try {
+            load();
+            fail("a plugin failing against a changed bootstrap must fail the reload");
+        } catch (PluginFailureException expected) {
+        }
+
+        assertSame(previous, context.getPlugins().getLoaded());
+        assertEquals(setOf("first.scala", "second.scala"), plugins(previous.getRegistry()));
+    }
+
+    @Test
+    public void testLaunchListenerRuns() throws Exception {
+        write("bootstrap.scala", BOOTSTRAP);
+        write("launch.scala", LAUNCH_PLUGIN);
+        new PluginBootstrap(context, pluginDir, cacheDir).loadNow();
+
+        System.clearProperty(LAUNCHED);
+        try {
+            context.getPlugins().post(ServerLaunchEvent.INSTANCE);
+            assertEquals("true", System.getProperty(LAUNCHED));
+        } finally {
+            System.clearProperty(LAUNCHED);
+        }
+    }
+
+    /**
+     * Writes a plugin file.
+     */
+    private void write(String name, String contents) throws Exception {
+        Files.write(pluginDir.resolve(name), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loads the plugin files.
+     */
+    private void load() throws Exception {
+        new PluginBootstrap(context, pluginDir, cacheDir).call();
+    }
+
+    /**
+     * Returns the plugins that added a server launch listener to {@code registry}.
+     */
+    private Set<String> plugins(EventListenerPipelineSet registry) {
+        Set<String> plugins = new TreeSet<>();
+        EventListenerPipeline<?> pipeline = registry.get(ServerLaunchEvent.class);
+        for (EventListener<?> listener : pipeline) {
+            plugins.add(listener.getPlugin());
+        }
+        return plugins;
+    }
+
+    /**
+     * Returns a sorted set of {@code names}.
+     */
+    private Set<String> setOf(String... names) {
+        Set<String> set = new TreeSet<>();
+        for (String name : names) {
+            set.add(name);
+        }
+        return set;
+    }
+}
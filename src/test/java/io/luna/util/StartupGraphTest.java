@@ -0,0 +1,90 @@
+package io.luna.util;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A test that ensures the {@link StartupGraph} is functioning correctly.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class StartupGraphTest {
+
+    /**
+     * The executor running tasks.
+     */
+    private final ListeningExecutorService executor = MoreExecutors.listeningDecorator(
+        Executors.newFixedThreadPool(4));
+
+    /**
+     * Shuts down the executor.
+     */
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that tasks only run after their dependencies.
+     */
+    @Test
+    public void testDependencyOrder() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        StartupGraph graph = new StartupGraph(executor);
+        graph.add("a", () -> {
+            Thread.sleep(50);
+            order.add("a");
+        });
+        graph.add("b", () -> order.add("b"));
+        graph.add("c", () -> order.add("c"), "a", "b");
+        graph.add("d", () -> order.add("d"), "c");
+        graph.run();
+
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf("c") > order.indexOf("a"));
+        assertTrue(order.indexOf("c") > order.indexOf("b"));
+        assertEquals("d", order.get(3));
+    }
+
+    /**
+     * Test that a failing task fails the graph, and its dependents never run.
+     */
+    @Test
+    public void testFailFast() throws Exception {
+        AtomicBoolean dependentRan = new AtomicBoolean();
+        StartupGraph graph = new StartupGraph(executor);
+        graph.add("a", () -> {
+            throw new IllegalArgumentException("broken");
+        });
+        graph.add("b", () -> dependentRan.set(true), "a");
+
+        try {
+            graph.run();
+            fail("graph should have failed");
+        } catch (IllegalStateException e) {
+            assertEquals("startup task [a] failed", e.getMessage());
+        }
+        assertFalse(dependentRan.get());
+    }
+
+    /**
+     * Test that a dependency must be added before its dependent.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupGraph(executor).add("a", () -> {
+        }, "b");
+    }
+}
@@ -0,0 +1,165 @@
+package io.luna.util.parser;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A test that ensures a {@link CachedGsonParser} behaves the same on cold and warm starts.
+ *
+ * @author lare96 <http://github.org/lare96>
+ */
+public final class CachedGsonParserTest {
+
+    /**
+     * A parser that only retains even identifiers.
+     */
+    private static final class EvenParser extends CachedGsonParser<Integer> {
+
+        /**
+         * Every identifier passed to {@code onRead(Integer)}.
+         */
+        private final List<Integer> consumed = new ArrayList<>();
+
+        /**
+         * The identifiers passed to {@code onReadComplete(List)}.
+         */
+        private List<Integer> completed;
+
+        /**
+         * Creates a new {@link EvenParser}.
+         *
+         * @param directory The directory containing cache files.
+         * @param path The path to the file being parsed.
+         */
+        private EvenParser(Path directory, Path path) {
+            super(directory, path.toString());
+        }
+
+        @Override
+        public Integer readObject(JsonObject reader) {
+            return reader.get("id").getAsInt();
+        }
+
+        @Override
+        public boolean onRead(Integer readObject) {
+            consumed.add(readObject);
+            return readObject % 2 == 0;
+        }
+
+        @Override
+        public void onReadComplete(List<Integer> readObjects) {
+            completed = readObjects;
+        }
+
+        @Override
+        public void encode(DataOutput out, Integer obj) throws IOException {
+            out.writeInt(obj);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buf) {
+            return buf.getInt();
+        }
+    }
+
+    /**
+     * A parser that encodes each identifier as more values than the cache format allows.
+     */
+    private static final class OversizedParser extends CachedGsonParser<Integer> {
+
+        /**
+         * The identifiers passed to {@code onReadComplete(List)}.
+         */
+        private List<Integer> completed;
+
+        /**
+         * Creates a new {@link OversizedParser}.
+         *
+         * @param directory The directory containing cache files.
+         * @param path The path to the file being parsed.
+         */
+        private OversizedParser(Path directory, Path path) {
+            super(directory, path.toString());
+        }
+
+        @Override
+        public Integer readObject(JsonObject reader) {
+            return reader.get("id").getAsInt();
+        }
+
+        @Override
+        public void onReadComplete(List<Integer> readObjects) {
+            completed = readObjects;
+        }
+
+        @Override
+        public void encode(DataOutput out, Integer obj) throws IOException {
+            writeInts(out, Collections.nCopies(256, obj));
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buf) {
+            return readInts(buf)[0];
+        }
+    }
+
+    /**
+     * The temporary directories.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test that {@code onRead(T)} sees every object and retains the same ones on cold and warm starts.
+     */
+    @Test
+    public void testColdAndWarmStart() throws Exception {
+        Path cacheDir = folder.newFolder("cache").toPath();
+        Path path = folder.getRoot().toPath().resolve("ids.json");
+        Files.write(path, "[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}, {\"id\": 4}]".getBytes(StandardCharsets.UTF_8));
+
+        EvenParser cold = new EvenParser(cacheDir, path);
+        cold.run();
+        assertTrue(Files.exists(cacheDir.resolve("ids.json.bin")));
+        assertEquals(ImmutableList.of(1, 2, 3, 4), cold.consumed);
+        assertEquals(ImmutableList.of(2, 4), cold.completed);
+
+        EvenParser warm = new EvenParser(cacheDir, path);
+        warm.run();
+        assertEquals(ImmutableList.of(1, 2, 3, 4), warm.consumed);
+        assertEquals(ImmutableList.of(2, 4), warm.completed);
+    }
+
+    /**
+     * Test that objects the cache can't hold are still parsed, without writing a truncated cache.
+     */
+    @Test
+    public void testUnencodableObjects() throws Exception {
+        Path cacheDir = folder.newFolder("cache").toPath();
+        Path path = folder.getRoot().toPath().resolve("ids.json");
+        Files.write(path, "[{\"id\": 1}, {\"id\": 2}]".getBytes(StandardCharsets.UTF_8));
+
+        OversizedParser parser = new OversizedParser(cacheDir, path);
+        parser.run();
+        assertEquals(ImmutableList.of(1, 2), parser.completed);
+        assertFalse(Files.exists(cacheDir.resolve("ids.json.bin")));
+        assertFalse(Files.exists(cacheDir.resolve("ids.json.bin.tmp")));
+    }
+}